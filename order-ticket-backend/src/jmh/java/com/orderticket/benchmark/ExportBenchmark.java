@@ -0,0 +1,56 @@
+package com.orderticket.benchmark;
+
+import com.orderticket.service.DelimitedWriter;
+import com.orderticket.service.ExportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Export strategies over the same synthetic rows, written to a null stream so
+// only rendering is measured. Run with -prof gc for the allocation rate. The
+// in-memory XSSF baseline is XssfExportBenchmark.
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ExportService exportService;
+
+    @Setup
+    public void setUp() {
+        exportService = SyntheticOrders.exportService();
+    }
+
+    @Benchmark
+    public void streamingExcel() {
+        exportService.exportOrdersToExcel(SyntheticOrders.stream(rows), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void json() {
+        exportService.exportOrdersToJson(SyntheticOrders.stream(rows), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void csv() {
+        exportService.exportOrdersToDelimited(SyntheticOrders.stream(rows), OutputStream.nullOutputStream(),
+                                              DelimitedWriter.Dialect.CSV, false);
+    }
+}
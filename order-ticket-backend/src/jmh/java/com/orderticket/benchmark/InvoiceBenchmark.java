@@ -0,0 +1,140 @@
+package com.orderticket.benchmark;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.orderticket.dto.OrderSummaryRow;
+import com.orderticket.entity.Order;
+import com.orderticket.service.InvoiceService;
+import com.orderticket.service.InvoiceTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+// PDF rendering: a single invoice from the template against the previous full
+// layout, and the batch summary at growing row counts
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class InvoiceBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private InvoiceService invoiceService;
+
+    @Setup
+    public void setUp() {
+        invoiceService = SyntheticOrders.invoiceService();
+    }
+
+    @State(Scope.Benchmark)
+    public static class SingleInvoice {
+        // Empty uses the predefined CJK font; pass -p fontPath=/path/to/font.ttf
+        // to measure with an embedded font subset
+        @Param({""})
+        public String fontPath;
+
+        InvoiceTemplate invoiceTemplate;
+        InvoiceService invoiceService;
+
+        @Setup
+        public void setUp() {
+            invoiceTemplate = SyntheticOrders.invoiceTemplate(fontPath);
+            invoiceService = SyntheticOrders.invoiceService(invoiceTemplate);
+        }
+    }
+
+    @Benchmark
+    public byte[] singleInvoice(SingleInvoice state) {
+        return state.invoiceService.generatePdfInvoice(SyntheticOrders.single());
+    }
+
+    // The layout before the template: every invoice lays out the title, the full
+    // label/value table and the footer. Same font and writer, so only the
+    // rendering strategy differs.
+    @Benchmark
+    public byte[] singleInvoiceFullLayout(SingleInvoice state) {
+        Order order = SyntheticOrders.single();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(InvoiceTemplate.newWriter(baos));
+        Document document = new Document(pdfDoc);
+        document.setFont(state.invoiceTemplate.createFont());
+
+        document.add(new Paragraph("订单发票 / Order Invoice")
+                .setTextAlignment(TextAlignment.CENTER)
+                .setFontSize(20)
+                .setBold());
+        document.add(new Paragraph("\n"));
+
+        Table infoTable = new Table(UnitValue.createPercentArray(new float[]{30, 70}));
+        infoTable.setWidth(UnitValue.createPercentValue(100));
+        addTableRow(infoTable, "订单号 / Order Number:", order.getOrderNumber());
+        addTableRow(infoTable, "客户姓名 / Customer Name:", order.getCustomerName());
+        addTableRow(infoTable, "客户邮箱 / Email:", order.getCustomerEmail());
+        addTableRow(infoTable, "客户电话 / Phone:", order.getCustomerPhone());
+        addTableRow(infoTable, "订单状态 / Status:", order.getStatus().toString());
+        addTableRow(infoTable, "订单日期 / Order Date:", order.getOrderDate().format(DATE_FORMATTER));
+        addTableRow(infoTable, "总金额 / Total Amount:", "¥" + order.getTotalAmount().toString());
+        document.add(infoTable);
+        document.add(new Paragraph("\n"));
+
+        if (order.getProductDetails() != null && !order.getProductDetails().isEmpty()) {
+            document.add(new Paragraph("产品详情 / Product Details:").setBold().setFontSize(14));
+            document.add(new Paragraph(order.getProductDetails()));
+            document.add(new Paragraph("\n"));
+        }
+        if (order.getDescription() != null && !order.getDescription().isEmpty()) {
+            document.add(new Paragraph("订单描述 / Description:").setBold().setFontSize(14));
+            document.add(new Paragraph(order.getDescription()));
+            document.add(new Paragraph("\n"));
+        }
+
+        document.add(new Paragraph("感谢您的订购！/ Thank you for your order!")
+                .setTextAlignment(TextAlignment.CENTER)
+                .setItalic());
+        document.add(new Paragraph("生成时间 / Generated at: " + LocalDateTime.now().format(DATE_FORMATTER))
+                .setTextAlignment(TextAlignment.RIGHT)
+                .setFontSize(10));
+
+        document.close();
+        return baos.toByteArray();
+    }
+
+    @State(Scope.Benchmark)
+    public static class BatchRows {
+        @Param({"1000", "100000", "1000000"})
+        public int rows;
+    }
+
+    @Benchmark
+    public void batchInvoices(BatchRows state) {
+        invoiceService.writeBatchPdfInvoices(SyntheticOrders.stream(state.rows).map(OrderSummaryRow::of),
+                                             OutputStream.nullOutputStream());
+    }
+
+    private static void addTableRow(Table table, String label, String value) {
+        table.addCell(new Cell().add(new Paragraph(label).setBold()));
+        table.addCell(new Cell().add(new Paragraph(value != null ? value : "")));
+    }
+}
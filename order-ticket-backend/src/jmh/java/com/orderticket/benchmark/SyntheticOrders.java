@@ -0,0 +1,103 @@
+package com.orderticket.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.orderticket.entity.Order;
+import com.orderticket.service.ExportMetrics;
+import com.orderticket.service.ExportService;
+import com.orderticket.service.InvoiceService;
+import com.orderticket.service.InvoiceTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Deterministic order data and hand-wired services for the benchmarks. Rows are
+// drawn from a fixed pool of distinct orders, so a 1M row export doesn't need
+// 1M entities on the heap and generating rows costs next to nothing.
+final class SyntheticOrders {
+
+    private static final int POOL_SIZE = 10_000;
+    private static final String[] NAMES = {"张三", "李四", "王五", "赵六", "Alice Johnson", "Bob Smith"};
+    private static final String[] PRODUCTS = {
+        "iPhone 15 Pro Max - 256GB 深空黑色", "实木书桌 + 人体工学椅套装", "海尔变频空调 1.5匹",
+        "MacBook Air M2 - 512GB 星光色", "Wireless headphones, noise cancelling"
+    };
+
+    private static final Order[] POOL = createPool();
+
+    private SyntheticOrders() {
+    }
+
+    static Stream<Order> stream(int rows) {
+        return IntStream.range(0, rows).mapToObj(i -> POOL[i % POOL_SIZE]);
+    }
+
+    static Order single() {
+        return POOL[0];
+    }
+
+    static ExportService exportService() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ExportService exportService = new ExportService();
+        ReflectionTestUtils.setField(exportService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(exportService, "exportMetrics", exportMetrics());
+        return exportService;
+    }
+
+    static InvoiceService invoiceService() {
+        return invoiceService(invoiceTemplate(""));
+    }
+
+    static InvoiceService invoiceService(InvoiceTemplate invoiceTemplate) {
+        InvoiceService invoiceService = new InvoiceService();
+        ReflectionTestUtils.setField(invoiceService, "exportMetrics", exportMetrics());
+        ReflectionTestUtils.setField(invoiceService, "invoiceTemplate", invoiceTemplate);
+        return invoiceService;
+    }
+
+    // An empty font path uses the predefined CJK font
+    static InvoiceTemplate invoiceTemplate(String fontPath) {
+        InvoiceTemplate invoiceTemplate = new InvoiceTemplate();
+        ReflectionTestUtils.setField(invoiceTemplate, "fontPath", fontPath);
+        ReflectionTestUtils.invokeMethod(invoiceTemplate, "init");
+        return invoiceTemplate;
+    }
+
+    private static ExportMetrics exportMetrics() {
+        ExportMetrics exportMetrics = new ExportMetrics();
+        ReflectionTestUtils.setField(exportMetrics, "meterRegistry", new SimpleMeterRegistry());
+        return exportMetrics;
+    }
+
+    private static Order[] createPool() {
+        Random random = new Random(42);
+        Order.OrderStatus[] statuses = Order.OrderStatus.values();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Order[] pool = new Order[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            Order order = new Order();
+            order.setId((long) i + 1);
+            order.setOrderNumber(String.format("ORD-2024-%06d", i));
+            order.setCustomerName(NAMES[random.nextInt(NAMES.length)]);
+            order.setCustomerEmail("customer" + i + "@email.com");
+            order.setCustomerPhone("138" + String.format("%08d", random.nextInt(100_000_000)));
+            order.setTotalAmount(BigDecimal.valueOf(random.nextInt(1_000_000), 2));
+            order.setStatus(statuses[random.nextInt(statuses.length)]);
+            order.setOrderDate(base.plusMinutes(random.nextInt(525_600)));
+            order.setDescription(i % 3 == 0 ? null : "Benchmark order " + i);
+            order.setProductDetails(PRODUCTS[random.nextInt(PRODUCTS.length)]);
+            order.setCreatedAt(order.getOrderDate());
+            order.setUpdatedAt(order.getOrderDate());
+            pool[i] = order;
+        }
+        return pool;
+    }
+}
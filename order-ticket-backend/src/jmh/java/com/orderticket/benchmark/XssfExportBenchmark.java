@@ -0,0 +1,63 @@
+package com.orderticket.benchmark;
+
+import com.orderticket.entity.Order;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+// In-memory XSSF baseline for ExportBenchmark, the export strategy before SXSSF.
+// It keeps the whole workbook on heap, so it only runs up to 100k rows; its own
+// class keeps ExportBenchmark's 1M row parameter away from it.
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class XssfExportBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Param({"1000", "100000"})
+    public int xssfRows;
+
+    @Benchmark
+    public void xssfExcel() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("订单数据");
+            int rowNum = 0;
+            Iterator<Order> iterator = SyntheticOrders.stream(xssfRows).iterator();
+            while (iterator.hasNext()) {
+                Order order = iterator.next();
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(order.getOrderNumber());
+                row.createCell(1).setCellValue(order.getCustomerName());
+                row.createCell(2).setCellValue(order.getCustomerEmail());
+                row.createCell(3).setCellValue(order.getCustomerPhone());
+                row.createCell(4).setCellValue(order.getTotalAmount().doubleValue());
+                row.createCell(5).setCellValue(order.getStatus().toString());
+                row.createCell(6).setCellValue(order.getOrderDate().format(DATE_FORMATTER));
+                row.createCell(7).setCellValue(order.getDescription() != null ? order.getDescription() : "");
+                row.createCell(8).setCellValue(order.getProductDetails());
+                row.createCell(9).setCellValue(order.getCreatedAt().format(DATE_FORMATTER));
+            }
+            workbook.write(OutputStream.nullOutputStream());
+        }
+    }
+}
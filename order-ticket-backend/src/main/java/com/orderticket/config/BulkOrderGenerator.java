@@ -0,0 +1,161 @@
+package com.orderticket.config;
+
+import com.orderticket.entity.Order;
+import com.orderticket.repository.OrderRepository;
+import com.orderticket.service.OrderBulkWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Fills the orders table with production-sized synthetic data when the
+// "loadtest" profile is active. Rows go through OrderBulkWriter, so ids come
+// from the pooled sequence and inserts are sent as JDBC batches, one
+// transaction per batch. The data is deterministic for
+// a given seed: a few customers place most orders, recent days are busier,
+// and the status depends on how old the order is.
+@Component
+@Profile("loadtest")
+public class BulkOrderGenerator implements CommandLineRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(BulkOrderGenerator.class);
+    
+    private static final String[] SURNAMES = {"张", "李", "王", "赵", "刘", "陈", "杨", "黄", "周", "吴", "徐", "孙"};
+    private static final String[] GIVEN_NAMES = {"伟", "芳", "娜", "敏", "静", "强", "磊", "洋", "艳", "勇", "军", "杰", "涛", "明", "超"};
+    private static final String[][] PRODUCTS = {
+        {"电子产品订单", "iPhone 15 Pro Max - 256GB 深空黑色"},
+        {"家具订单", "实木书桌 + 人体工学椅套装"},
+        {"服装订单", "春季新款连衣裙 - 蓝色 M码"},
+        {"电器订单", "海尔变频空调 1.5匹"},
+        {"运动用品", "耐克Air Jordan篮球鞋 - 42码"},
+        {"美妆用品", "SK-II神仙水 230ml"},
+        {"数码产品", "MacBook Air M2 - 512GB 星光色"},
+        {"厨房电器", "九阳豆浆机 + 空气炸锅套装"}
+    };
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private OrderBulkWriter orderBulkWriter;
+    
+    // Target row count; only the missing rows are generated
+    @Value("${order.generator.rows:1000000}")
+    private int rows;
+    
+    @Value("${order.generator.batch-size:5000}")
+    private int batchSize;
+    
+    @Value("${order.generator.customers:50000}")
+    private int customers;
+    
+    // Higher values concentrate more orders on the first customers
+    @Value("${order.generator.customer-skew:3.0}")
+    private double customerSkew;
+    
+    @Value("${order.generator.days:730}")
+    private int days;
+    
+    @Value("${order.generator.seed:42}")
+    private long seed;
+    
+    @Override
+    public void run(String... args) {
+        long existing = orderRepository.count();
+        int start = (int) Math.min(existing, rows);
+        if (start >= rows) {
+            log.info("Order generator skipped, {} orders already present", existing);
+            return;
+        }
+        
+        Random random = new Random(seed + start);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        long startedAt = System.nanoTime();
+        List<Order> batch = new ArrayList<>(batchSize);
+        for (int i = start; i < rows; i++) {
+            batch.add(generateOrder(i, random, now));
+            if (batch.size() == batchSize || i == rows - 1) {
+                orderBulkWriter.writeChunk(batch);
+                batch.clear();
+                
+                int generated = i + 1 - start;
+                if (generated % (batchSize * 20) == 0 || i == rows - 1) {
+                    log.info("Generated {} / {} orders ({} rows/s)", generated, rows - start,
+                             rowsPerSecond(generated, startedAt));
+                }
+            }
+        }
+        log.info("Order generator finished: {} orders in {} ms, {} rows/s", rows - start,
+                 (System.nanoTime() - startedAt) / 1_000_000, rowsPerSecond(rows - start, startedAt));
+    }
+    
+    private Order generateOrder(int index, Random random, LocalDateTime now) {
+        // Power-law pick: low customer numbers come up far more often
+        int customer = (int) (customers * Math.pow(random.nextDouble(), customerSkew));
+        String customerName = SURNAMES[customer % SURNAMES.length]
+            + GIVEN_NAMES[(customer / SURNAMES.length) % GIVEN_NAMES.length]
+            + (customer >= SURNAMES.length * GIVEN_NAMES.length ? String.valueOf(customer) : "");
+        
+        // Recent days are denser; hours cluster around the afternoon
+        long ageMinutes = (long) (days * 1440L * Math.pow(random.nextDouble(), 1.5));
+        LocalDateTime orderDate = now.minusMinutes(ageMinutes)
+            .withHour(Math.max(0, Math.min(23, (int) Math.round(14 + random.nextGaussian() * 4))));
+        if (orderDate.isAfter(now)) {
+            orderDate = now;
+        }
+        
+        // Log-normal amounts, median around 90
+        BigDecimal amount = BigDecimal.valueOf(Math.min(99_999_999.0, Math.exp(4.5 + random.nextGaussian())))
+            .setScale(2, RoundingMode.HALF_UP);
+        
+        String[] product = PRODUCTS[random.nextInt(PRODUCTS.length)];
+        Order.OrderStatus status = status(ageMinutes / 1440, random);
+        LocalDateTime updatedAt = status == Order.OrderStatus.PENDING ? orderDate : orderDate.plusHours(random.nextInt(72));
+        if (updatedAt.isAfter(now)) {
+            updatedAt = now;
+        }
+        
+        Order order = new Order(String.format("LT-%09d", index), customerName,
+                                "customer" + customer + "@example.com", String.format("138%08d", customer),
+                                amount, status, product[0], product[1]);
+        order.setOrderDate(orderDate);
+        order.setCreatedAt(orderDate);
+        order.setUpdatedAt(updatedAt);
+        return order;
+    }
+    
+    // Young orders are still in flight, old ones are mostly delivered or cancelled
+    private Order.OrderStatus status(long ageDays, Random random) {
+        int roll = random.nextInt(100);
+        if (ageDays < 2) {
+            return roll < 40 ? Order.OrderStatus.PENDING
+                 : roll < 70 ? Order.OrderStatus.CONFIRMED
+                 : roll < 90 ? Order.OrderStatus.PROCESSING
+                 : roll < 97 ? Order.OrderStatus.SHIPPED
+                 : Order.OrderStatus.CANCELLED;
+        }
+        if (ageDays < 14) {
+            return roll < 5 ? Order.OrderStatus.PENDING
+                 : roll < 15 ? Order.OrderStatus.PROCESSING
+                 : roll < 45 ? Order.OrderStatus.SHIPPED
+                 : roll < 92 ? Order.OrderStatus.DELIVERED
+                 : Order.OrderStatus.CANCELLED;
+        }
+        return roll < 92 ? Order.OrderStatus.DELIVERED : Order.OrderStatus.CANCELLED;
+    }
+    
+    private static long rowsPerSecond(long rows, long startedAt) {
+        long elapsed = System.nanoTime() - startedAt;
+        return elapsed > 0 ? rows * 1_000_000_000L / elapsed : rows;
+    }
+}
@@ -4,6 +4,7 @@ import com.orderticket.entity.Order;
 import com.orderticket.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -11,7 +12,9 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+// Small demo seed; the loadtest profile uses BulkOrderGenerator instead
 @Component
+@Profile("!loadtest")
 public class DataInitializer implements CommandLineRunner {
     
     @Autowired
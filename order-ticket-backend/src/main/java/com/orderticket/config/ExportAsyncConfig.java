@@ -0,0 +1,46 @@
+package com.orderticket.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Streaming export bodies are written on their own pool rather than the shared
+// application executor. Bodies wait for their bulkhead permit on this pool, so
+// it has a thread for every running and every waiting export. The queue only
+// absorbs bursts that pass the bulkhead's early check at the same moment;
+// beyond that the submit is rejected and answered with 429.
+//
+// This is the MVC async executor of the whole application, on purpose:
+// StreamingResponseBody can't choose an executor, and every async endpoint here
+// is a bulkheaded export. A Callable, DeferredResult or streaming endpoint that
+// isn't an export must return a WebAsyncTask with its own executor, or it
+// competes with exports for these threads.
+@Configuration
+public class ExportAsyncConfig implements WebMvcConfigurer {
+    
+    private final ThreadPoolTaskExecutor exportStreamExecutor = new ThreadPoolTaskExecutor();
+    
+    public ExportAsyncConfig(@Value("${order.export.bulkhead.max-concurrent:4}") int maxConcurrent,
+                             @Value("${order.export.bulkhead.max-waiting:8}") int maxWaiting,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int threads = maxConcurrent + maxWaiting;
+        exportStreamExecutor.setCorePoolSize(threads);
+        exportStreamExecutor.setMaxPoolSize(threads);
+        exportStreamExecutor.setQueueCapacity(threads);
+        exportStreamExecutor.setThreadFactory(WorkerThreads.factory("export-stream-", virtualThreads));
+        exportStreamExecutor.initialize();
+    }
+    
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportStreamExecutor);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        exportStreamExecutor.shutdown();
+    }
+}
@@ -0,0 +1,22 @@
+package com.orderticket.config;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+// Thread factories for the export and render worker pools. With
+// spring.threads.virtual.enabled=true (Java 21+) pool workers are virtual
+// threads, so workers blocked on JDBC or file I/O release their carrier.
+// The pools keep their sizes either way, so concurrency stays bounded.
+public final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    public static ThreadFactory factory(String threadNamePrefix, boolean virtual) {
+        return virtual
+            ? new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory()
+            : new CustomizableThreadFactory(threadNamePrefix);
+    }
+}
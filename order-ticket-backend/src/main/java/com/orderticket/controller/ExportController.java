@@ -1,16 +1,28 @@
 package com.orderticket.controller;
 
+import com.orderticket.dto.ExportEstimate;
+import com.orderticket.dto.OrderPreviewRow;
 import com.orderticket.entity.Order;
+import com.orderticket.service.DelimitedWriter;
+import com.orderticket.service.ExportBulkhead;
+import com.orderticket.service.ExportPreviewService;
 import com.orderticket.service.ExportService;
+import com.orderticket.service.InvoiceArchiveService;
+import com.orderticket.service.InvoiceCache;
 import com.orderticket.service.InvoiceService;
 import com.orderticket.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -30,43 +42,67 @@ public class ExportController {
     @Autowired
     private ExportService exportService;
     
-    // Export single order as PDF invoice
+    @Autowired
+    private InvoiceCache invoiceCache;
+    
+    @Autowired
+    private InvoiceArchiveService invoiceArchiveService;
+    
+    @Autowired
+    private ExportBulkhead exportBulkhead;
+    
+    @Autowired
+    private ExportPreviewService exportPreviewService;
+    
+    // Export single order as PDF invoice. Renderings are cached per order version
+    // and clients revalidate with If-None-Match to get a 304 without a download.
     @GetMapping("/invoice/pdf/{orderId}")
-    public ResponseEntity<byte[]> exportSingleInvoicePdf(@PathVariable Long orderId) {
+    public ResponseEntity<byte[]> exportSingleInvoicePdf(@PathVariable Long orderId, WebRequest request) {
         Optional<Order> orderOpt = orderService.findOrderById(orderId);
         if (orderOpt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
         Order order = orderOpt.get();
-        byte[] pdfData = invoiceService.generatePdfInvoice(order);
+        String etag = invoiceCache.etag(order);
+        if (etag != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        byte[] pdfData = invoiceCache.getOrRender(order, invoiceService::generatePdfInvoice);
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         headers.setContentDispositionFormData("attachment", 
             "invoice_" + order.getOrderNumber() + ".pdf");
         
-        return ResponseEntity.ok()
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfData);
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(pdfData);
     }
     
-    // Export filtered orders as batch PDF invoices
+    // Export filtered orders as batch PDF invoices, streamed straight to the response
     @GetMapping("/invoice/pdf/batch")
-    public ResponseEntity<byte[]> exportBatchInvoicesPdf(
+    public ResponseEntity<StreamingResponseBody> exportBatchInvoicesPdf(
             @RequestParam(required = false) String orderNumber,
             @RequestParam(required = false) String customerName,
             @RequestParam(required = false) Order.OrderStatus status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
-        List<Order> orders = orderService.getOrdersForExport(orderNumber, customerName, status, startDate, endDate);
-        
-        if (orders.isEmpty()) {
+        if (orderService.countOrdersForExportUpTo(orderNumber, customerName, status, startDate, endDate, 1) == 0) {
             return ResponseEntity.noContent().build();
         }
         
-        byte[] pdfData = invoiceService.generateBatchPdfInvoices(orders);
+        StreamingResponseBody body = exportBulkhead.guard(outputStream -> orderService.streamOrderSummaries(
+            orderNumber, customerName, status, startDate, endDate, orders -> {
+                invoiceService.writeBatchPdfInvoices(orders, outputStream);
+                return null;
+            }));
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
@@ -75,25 +111,56 @@ public class ExportController {
         
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfData);
+                .body(body);
     }
     
-    // Export filtered orders to Excel
-    @GetMapping("/excel")
-    public ResponseEntity<byte[]> exportOrdersToExcel(
+    // Export one PDF invoice per filtered order, rendered in parallel into a ZIP archive
+    @GetMapping("/invoice/pdf/zip")
+    public ResponseEntity<StreamingResponseBody> exportInvoicesZip(
             @RequestParam(required = false) String orderNumber,
             @RequestParam(required = false) String customerName,
             @RequestParam(required = false) Order.OrderStatus status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
-        List<Order> orders = orderService.getOrdersForExport(orderNumber, customerName, status, startDate, endDate);
+        if (orderService.countOrdersForExportUpTo(orderNumber, customerName, status, startDate, endDate, 1) == 0) {
+            return ResponseEntity.noContent().build();
+        }
+        
+        StreamingResponseBody body = exportBulkhead.guard(outputStream -> orderService.streamOrdersForExport(
+            orderNumber, customerName, status, startDate, endDate, orders -> {
+                invoiceArchiveService.writeInvoiceZip(orders, outputStream);
+                return null;
+            }));
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", 
+            "invoices_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".zip");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+    
+    // Export filtered orders to Excel, streamed straight to the response
+    @GetMapping("/excel")
+    public ResponseEntity<StreamingResponseBody> exportOrdersToExcel(
+            @RequestParam(required = false) String orderNumber,
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
-        if (orders.isEmpty()) {
+        if (orderService.countOrdersForExportUpTo(orderNumber, customerName, status, startDate, endDate, 1) == 0) {
             return ResponseEntity.noContent().build();
         }
         
-        byte[] excelData = exportService.exportOrdersToExcel(orders);
+        StreamingResponseBody body = exportBulkhead.guard(outputStream -> orderService.streamOrdersForExport(
+            orderNumber, customerName, status, startDate, endDate, orders -> {
+                exportService.exportOrdersToExcel(orders, outputStream);
+                return null;
+            }));
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
@@ -102,22 +169,79 @@ public class ExportController {
         
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(excelData);
+                .body(body);
     }
     
-    // Get export preview (first 10 orders that would be exported)
-    @GetMapping("/preview")
-    public ResponseEntity<List<Order>> getExportPreview(
+    // Export filtered orders as CSV or TSV for machine consumers. Skips POI
+    // entirely; with gzip=true the file itself is gzip-compressed (.csv.gz).
+    @GetMapping("/csv")
+    public ResponseEntity<StreamingResponseBody> exportOrdersToCsv(
             @RequestParam(required = false) String orderNumber,
             @RequestParam(required = false) String customerName,
             @RequestParam(required = false) Order.OrderStatus status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "CSV") DelimitedWriter.Dialect dialect,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        if (orderService.countOrdersForExportUpTo(orderNumber, customerName, status, startDate, endDate, 1) == 0) {
+            return ResponseEntity.noContent().build();
+        }
         
-        List<Order> orders = orderService.getOrdersForExport(orderNumber, customerName, status, startDate, endDate);
+        StreamingResponseBody body = exportBulkhead.guard(outputStream -> orderService.streamOrdersForExport(
+            orderNumber, customerName, status, startDate, endDate, orders -> {
+                exportService.exportOrdersToDelimited(orders, outputStream, dialect, gzip);
+                return null;
+            }));
+        
+        String extension = dialect == DelimitedWriter.Dialect.TSV ? ".tsv" : ".csv";
+        HttpHeaders headers = new HttpHeaders();
+        if (gzip) {
+            headers.setContentType(MediaType.parseMediaType("application/gzip"));
+            extension += ".gz";
+        } else if (dialect == DelimitedWriter.Dialect.TSV) {
+            headers.setContentType(new MediaType("text", "tab-separated-values", StandardCharsets.UTF_8));
+        } else {
+            headers.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        }
+        headers.setContentDispositionFormData("attachment", 
+            "orders_export_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + extension);
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+    
+    // Export bulkhead occupancy and rejections, for sizing it per node
+    @GetMapping("/bulkhead")
+    public ResponseEntity<ExportBulkhead.BulkheadStatistics> getBulkheadStatistics() {
+        return ResponseEntity.ok(exportBulkhead.getStatistics());
+    }
+    
+    // Get export preview (first orders that would be exported)
+    @GetMapping("/preview")
+    public ResponseEntity<List<OrderPreviewRow>> getExportPreview(
+            @RequestParam(required = false) String orderNumber,
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer size) {
         
-        // Return first 10 orders for preview
-        List<Order> preview = orders.stream().limit(10).toList();
+        List<OrderPreviewRow> preview = exportPreviewService.getPreview(
+            orderNumber, customerName, status, startDate, endDate, size);
         return ResponseEntity.ok(preview);
     }
+    
+    // Estimated row count and file size per format, before starting an export
+    @GetMapping("/preview/estimate")
+    public ResponseEntity<ExportEstimate> getExportEstimate(
+            @RequestParam(required = false) String orderNumber,
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        
+        return ResponseEntity.ok(exportPreviewService.estimate(orderNumber, customerName, status, startDate, endDate));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.orderticket.controller;
+
+import com.orderticket.service.ExportBulkhead;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class ExportExceptionHandler {
+    
+    @Autowired
+    private ExportBulkhead exportBulkhead;
+    
+    // Export bulkhead full: 429 with a Retry-After hint. A body rejected on the
+    // export pool has already set the download headers, which are dropped here.
+    @ExceptionHandler(ExportBulkhead.BulkheadFullException.class)
+    public ResponseEntity<Map<String, String>> handleBulkheadFull(ExportBulkhead.BulkheadFullException e,
+                                                                  HttpServletResponse response) {
+        if (!response.isCommitted()) {
+            response.reset();
+        }
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+    
+    // Export stream pool full: a burst got past the bulkhead's early check
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleExportPoolFull(TaskRejectedException e,
+                                                                    HttpServletResponse response) {
+        return handleBulkheadFull(new ExportBulkhead.BulkheadFullException(exportBulkhead.getRetryAfterSeconds()),
+                                  response);
+    }
+}
@@ -0,0 +1,84 @@
+package com.orderticket.controller;
+
+import com.orderticket.dto.ExportJobRequest;
+import com.orderticket.service.ExportJob;
+import com.orderticket.service.ExportJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/export/jobs")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ExportJobController {
+    
+    private static final String USER_HEADER = "X-User-Id";
+    
+    @Autowired
+    private ExportJobService exportJobService;
+    
+    // Submit an export job, returns immediately with the job id
+    @PostMapping
+    public ResponseEntity<ExportJob> submitJob(@RequestBody ExportJobRequest request,
+                                               HttpServletRequest httpRequest) {
+        if (request.format() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        ExportJob job = exportJobService.submit(request, currentUser(httpRequest));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+    
+    // Poll job status and progress
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJob> getJob(@PathVariable String id) {
+        return exportJobService.findJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // Download the finished artifact. Returning a Resource lets Spring answer
+    // Range requests with 206 partial content, so interrupted downloads resume.
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> downloadJob(@PathVariable String id) {
+        Optional<ExportJob> job = exportJobService.findJob(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<Path> artifact = exportJobService.findArtifact(id);
+        if (artifact.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(job.get().getFormat().getContentType()));
+        headers.setContentDispositionFormData("attachment", job.get().getFileName());
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(new FileSystemResource(artifact.get()));
+    }
+    
+    // Cancel a running job or discard a finished one
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelJob(@PathVariable String id) {
+        return exportJobService.cancel(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+    
+    // Per-user limits key on the caller's user header, falling back to the client address
+    private String currentUser(HttpServletRequest request) {
+        String user = request.getHeader(USER_HEADER);
+        return StringUtils.hasText(user) ? user : request.getRemoteAddr();
+    }
+}
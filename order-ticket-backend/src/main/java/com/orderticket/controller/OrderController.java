@@ -1,17 +1,33 @@
 package com.orderticket.controller;
 
+import com.orderticket.dto.CursorSlice;
+import com.orderticket.dto.ImportResult;
+import com.orderticket.dto.OrderGridRow;
 import com.orderticket.entity.Order;
+import com.orderticket.service.ExportBulkhead;
+import com.orderticket.service.ExportService;
+import com.orderticket.service.OrderImportService;
+import com.orderticket.service.OrderLookupCache;
 import com.orderticket.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @RestController
@@ -19,22 +35,33 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:5173")
 public class OrderController {
     
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private ExportBulkhead exportBulkhead;
+    
+    @Autowired
+    private OrderImportService orderImportService;
+    
     // Get all orders with pagination
     @GetMapping
-    public ResponseEntity<Page<Order>> getAllOrders(
+    public ResponseEntity<Page<OrderGridRow>> getAllOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Order> orders = orderService.findAllOrders(pageable);
+        Page<OrderGridRow> orders = orderService.findAllOrders(pageable);
         return ResponseEntity.ok(orders);
     }
     
     // Search orders with multiple filters
     @GetMapping("/search")
-    public ResponseEntity<Page<Order>> searchOrders(
+    public ResponseEntity<Page<OrderGridRow>> searchOrders(
             @RequestParam(required = false) String orderNumber,
             @RequestParam(required = false) String customerName,
             @RequestParam(required = false) Order.OrderStatus status,
@@ -44,7 +71,25 @@ public class OrderController {
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Order> orders = orderService.searchOrders(orderNumber, customerName, status, startDate, endDate, pageable);
+        Page<OrderGridRow> orders = orderService.searchOrders(orderNumber, customerName, status, startDate, endDate, pageable);
+        return ResponseEntity.ok(orders);
+    }
+    
+    // Search orders with keyset pagination. Pass the nextCursor of the previous
+    // response to continue; also serves plain, by-status and by-customer listings.
+    @GetMapping("/search/seek")
+    public ResponseEntity<CursorSlice<OrderGridRow>> searchOrdersSeek(
+            @RequestParam(required = false) String orderNumber,
+            @RequestParam(required = false) String customerName,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "NONE") OrderService.CountMode count) {
+        
+        CursorSlice<OrderGridRow> orders = orderService.searchOrdersAfter(
+            orderNumber, customerName, status, startDate, endDate, cursor, size, count);
         return ResponseEntity.ok(orders);
     }
     
@@ -64,33 +109,42 @@ public class OrderController {
     
     // Get orders by customer name
     @GetMapping("/customer")
-    public ResponseEntity<Page<Order>> getOrdersByCustomer(
+    public ResponseEntity<Page<OrderGridRow>> getOrdersByCustomer(
             @RequestParam String customerName,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Order> orders = orderService.findOrdersByCustomerName(customerName, pageable);
+        Page<OrderGridRow> orders = orderService.findOrdersByCustomerName(customerName, pageable);
         return ResponseEntity.ok(orders);
     }
     
     // Get orders by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<Page<Order>> getOrdersByStatus(
+    public ResponseEntity<Page<OrderGridRow>> getOrdersByStatus(
             @PathVariable Order.OrderStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Order> orders = orderService.findOrdersByStatus(status, pageable);
+        Page<OrderGridRow> orders = orderService.findOrdersByStatus(status, pageable);
         return ResponseEntity.ok(orders);
     }
     
     // Get recent orders
     @GetMapping("/recent")
-    public ResponseEntity<Page<Order>> getRecentOrders(
+    public ResponseEntity<Page<OrderGridRow>> getRecentOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Order> orders = orderService.getRecentOrders(pageable);
+        Page<OrderGridRow> orders = orderService.getRecentOrders(pageable);
+        return ResponseEntity.ok(orders);
+    }
+    
+    // Get recent orders with keyset pagination
+    @GetMapping("/recent/seek")
+    public ResponseEntity<CursorSlice<OrderGridRow>> getRecentOrdersSeek(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        CursorSlice<OrderGridRow> orders = orderService.getRecentOrdersAfter(cursor, size);
         return ResponseEntity.ok(orders);
     }
     
@@ -101,17 +155,74 @@ public class OrderController {
         return ResponseEntity.ok(statistics);
     }
     
-    // Get orders for export (without pagination)
+    // Get order lookup cache statistics
+    @GetMapping("/cache/statistics")
+    public ResponseEntity<OrderLookupCache.CacheStatistics> getLookupCacheStatistics() {
+        return ResponseEntity.ok(orderService.getLookupCacheStatistics());
+    }
+    
+    // Get orders for export (without pagination), streamed from a database cursor.
+    // The format follows the Accept header or the format parameter: a JSON array
+    // (default), NDJSON (application/x-ndjson) or CSV (text/csv).
     @GetMapping("/export")
-    public ResponseEntity<List<Order>> getOrdersForExport(
+    public ResponseEntity<StreamingResponseBody> getOrdersForExport(
             @RequestParam(required = false) String orderNumber,
             @RequestParam(required = false) String customerName,
             @RequestParam(required = false) Order.OrderStatus status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         
-        List<Order> orders = orderService.getOrdersForExport(orderNumber, customerName, status, startDate, endDate);
-        return ResponseEntity.ok(orders);
+        MediaType mediaType = exportMediaType(format, accept);
+        if (mediaType == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        
+        StreamingResponseBody body = exportBulkhead.guard(outputStream -> orderService.streamOrdersForExport(
+            orderNumber, customerName, status, startDate, endDate, orders -> {
+                if (mediaType.equals(MediaType.APPLICATION_NDJSON)) {
+                    exportService.exportOrdersToNdjson(orders, outputStream);
+                } else if (mediaType.equals(CSV)) {
+                    exportService.exportOrdersToCsv(orders, outputStream);
+                } else {
+                    exportService.exportOrdersToJson(orders, outputStream);
+                }
+                return null;
+            }));
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(body);
+    }
+    
+    // Export format from the explicit parameter, else the most preferred supported
+    // Accept type. Null when nothing acceptable is supported.
+    private MediaType exportMediaType(String format, String accept) {
+        if (format != null) {
+            return switch (format.toLowerCase(Locale.ROOT)) {
+                case "json" -> MediaType.APPLICATION_JSON;
+                case "ndjson" -> MediaType.APPLICATION_NDJSON;
+                case "csv" -> CSV;
+                default -> null;
+            };
+        }
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.isWildcardType() || type.includes(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (type.includes(MediaType.APPLICATION_NDJSON)) {
+                return MediaType.APPLICATION_NDJSON;
+            }
+            if (type.includes(CSV)) {
+                return CSV;
+            }
+        }
+        return null;
     }
     
     // Create new order
@@ -121,6 +232,18 @@ public class OrderController {
         return ResponseEntity.ok(createdOrder);
     }
     
+    // Bulk import orders from a CSV upload (header row required) or JSON lines,
+    // streamed from the request body and committed in chunks
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportResult> importOrders(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        ImportResult result = contentType.startsWith("text/csv")
+            ? orderImportService.importCsv(body)
+            : orderImportService.importNdjson(body);
+        return ResponseEntity.ok(result);
+    }
+    
     // Update existing order
     @PutMapping("/{id}")
     public ResponseEntity<Order> updateOrder(@PathVariable Long id, @RequestBody Order order) {
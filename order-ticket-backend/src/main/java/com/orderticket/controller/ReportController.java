@@ -0,0 +1,35 @@
+package com.orderticket.controller;
+
+import com.orderticket.dto.DailyOrderStats;
+import com.orderticket.entity.Order;
+import com.orderticket.service.OrderRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReportController {
+    
+    @Autowired
+    private OrderRollupService orderRollupService;
+    
+    // Order count and amount per day and status, answered from the daily rollup.
+    // Both dates are inclusive; days without orders are left out.
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailyOrderStats>> getDailyStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Order.OrderStatus status) {
+        
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(orderRollupService.getDailyStats(startDate, endDate, status));
+    }
+}
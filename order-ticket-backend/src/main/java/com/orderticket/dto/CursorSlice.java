@@ -0,0 +1,10 @@
+package com.orderticket.dto;
+
+import java.util.List;
+
+// One slice of a keyset-paginated listing. nextCursor is null on the last slice.
+// totalElements is null when the count was skipped; totalExact tells whether a
+// present total is an exact count or an estimate.
+public record CursorSlice<T>(List<T> content, int size, boolean hasNext, String nextCursor,
+                             Long totalElements, boolean totalExact) {
+}
@@ -0,0 +1,10 @@
+package com.orderticket.dto;
+
+import com.orderticket.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Orders of one day and status, as answered by the daily rollup
+public record DailyOrderStats(LocalDate date, Order.OrderStatus status, long orderCount, BigDecimal totalAmount) {
+}
@@ -0,0 +1,8 @@
+package com.orderticket.dto;
+
+import java.util.Map;
+
+// Up-front size of an export. rows is a lower bound when capped is set, and
+// estimatedBytes maps each export format to its expected file size.
+public record ExportEstimate(long rows, boolean exact, boolean capped, Map<String, Long> estimatedBytes) {
+}
@@ -0,0 +1,15 @@
+package com.orderticket.dto;
+
+import com.orderticket.entity.Order;
+import com.orderticket.service.ExportJob;
+
+import java.time.LocalDateTime;
+
+// Body of an export job submission: the output format plus the usual export filters
+public record ExportJobRequest(ExportJob.Format format,
+                               String orderNumber,
+                               String customerName,
+                               Order.OrderStatus status,
+                               LocalDateTime startDate,
+                               LocalDateTime endDate) {
+}
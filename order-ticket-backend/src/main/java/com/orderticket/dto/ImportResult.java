@@ -0,0 +1,9 @@
+package com.orderticket.dto;
+
+import java.util.List;
+
+// Outcome of a bulk order import. errors holds the first rejected rows with
+// their line numbers; rejected counts all of them.
+public record ImportResult(long imported, long rejected, List<String> errors,
+                           long elapsedMillis, long rowsPerSecond) {
+}
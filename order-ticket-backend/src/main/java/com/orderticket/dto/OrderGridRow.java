@@ -0,0 +1,20 @@
+package com.orderticket.dto;
+
+import com.orderticket.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Order list/search grid row: every column except the description and
+// productDetails text, which only the detail view needs
+public record OrderGridRow(Long id,
+                           String orderNumber,
+                           String customerName,
+                           String customerEmail,
+                           String customerPhone,
+                           BigDecimal totalAmount,
+                           Order.OrderStatus status,
+                           LocalDateTime orderDate,
+                           LocalDateTime createdAt,
+                           LocalDateTime updatedAt) {
+}
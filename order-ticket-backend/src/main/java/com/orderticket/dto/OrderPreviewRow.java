@@ -0,0 +1,21 @@
+package com.orderticket.dto;
+
+import com.orderticket.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Export preview row: the fields selectable for export. The preview is a
+// short top-N query, so the text columns are included.
+public record OrderPreviewRow(Long id,
+                              String orderNumber,
+                              String customerName,
+                              String customerEmail,
+                              String customerPhone,
+                              BigDecimal totalAmount,
+                              Order.OrderStatus status,
+                              LocalDateTime orderDate,
+                              LocalDateTime createdAt,
+                              String description,
+                              String productDetails) {
+}
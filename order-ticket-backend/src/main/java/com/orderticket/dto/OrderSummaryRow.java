@@ -0,0 +1,20 @@
+package com.orderticket.dto;
+
+import com.orderticket.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The columns of the batch invoice summary table
+public record OrderSummaryRow(Long id,
+                              String orderNumber,
+                              String customerName,
+                              BigDecimal totalAmount,
+                              Order.OrderStatus status,
+                              LocalDateTime orderDate) {
+
+    public static OrderSummaryRow of(Order order) {
+        return new OrderSummaryRow(order.getId(), order.getOrderNumber(), order.getCustomerName(),
+                                   order.getTotalAmount(), order.getStatus(), order.getOrderDate());
+    }
+}
@@ -0,0 +1,38 @@
+package com.orderticket.event;
+
+import com.orderticket.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Published by OrderService whenever an order is created, updated or deleted.
+// before is null for creations, after is null for deletions. Snapshots are
+// copied from the entity so listeners see the values as they were at publish time.
+public record OrderChangedEvent(Snapshot before, Snapshot after) {
+
+    public static OrderChangedEvent created(Order order) {
+        return new OrderChangedEvent(null, Snapshot.of(order));
+    }
+
+    public static OrderChangedEvent updated(Snapshot before, Order order) {
+        return new OrderChangedEvent(before, Snapshot.of(order));
+    }
+
+    public static OrderChangedEvent deleted(Order order) {
+        return new OrderChangedEvent(Snapshot.of(order), null);
+    }
+
+    public Long orderId() {
+        return after != null ? after.id() : before.id();
+    }
+
+    public record Snapshot(Long id, String orderNumber, String customerName,
+                           Order.OrderStatus status, BigDecimal totalAmount,
+                           LocalDateTime orderDate, LocalDateTime updatedAt) {
+
+        public static Snapshot of(Order order) {
+            return new Snapshot(order.getId(), order.getOrderNumber(), order.getCustomerName(),
+                    order.getStatus(), order.getTotalAmount(), order.getOrderDate(), order.getUpdatedAt());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.orderticket.repository;
+
+import com.orderticket.dto.DailyOrderStats;
+import com.orderticket.entity.Order;
+import com.orderticket.entity.OrderDailyStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface OrderDailyStatsRepository extends JpaRepository<OrderDailyStats, Long> {
+    
+    // Add a delta to an existing day/status row; returns 0 when the row doesn't exist yet
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrderDailyStats s SET s.orderCount = s.orderCount + :count, " +
+           "s.totalAmount = s.totalAmount + :amount WHERE s.statDate = :date AND s.status = :status")
+    int addToDay(@Param("date") LocalDate date, @Param("status") Order.OrderStatus status,
+                 @Param("count") long count, @Param("amount") BigDecimal amount);
+    
+    // Rollup rows in [from, to)
+    @Query("SELECT s FROM OrderDailyStats s WHERE s.statDate >= :from AND s.statDate < :to")
+    List<OrderDailyStats> findRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // Rollup rows in [from, to), write-locked in the order increments lock them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderDailyStats s WHERE s.statDate >= :from AND s.statDate < :to " +
+           "ORDER BY s.statDate, s.status")
+    List<OrderDailyStats> lockRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // All rollup rows, write-locked in the order increments lock them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderDailyStats s ORDER BY s.statDate, s.status")
+    List<OrderDailyStats> lockAll();
+    
+    // Non-empty day/status rows in [from, to]
+    @Query("SELECT new com.orderticket.dto.DailyOrderStats(s.statDate, s.status, s.orderCount, s.totalAmount) " +
+           "FROM OrderDailyStats s WHERE s.statDate >= :from AND s.statDate <= :to AND s.orderCount <> 0 " +
+           "ORDER BY s.statDate, s.status")
+    List<DailyOrderStats> findDaily(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // Non-empty rows of one status in [from, to]
+    @Query("SELECT new com.orderticket.dto.DailyOrderStats(s.statDate, s.status, s.orderCount, s.totalAmount) " +
+           "FROM OrderDailyStats s WHERE s.statDate >= :from AND s.statDate <= :to AND s.status = :status " +
+           "AND s.orderCount <> 0 ORDER BY s.statDate")
+    List<DailyOrderStats> findDailyByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                            @Param("status") Order.OrderStatus status);
+}
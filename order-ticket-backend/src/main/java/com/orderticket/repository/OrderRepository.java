@@ -1,71 +1,83 @@
 package com.orderticket.repository;
 
 import com.orderticket.entity.Order;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+// Filtered searches are built with OrderSpecifications and run through
+// JpaSpecificationExecutor or the slice/stream methods of OrderRepositoryCustom
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>,
+                                         OrderRepositoryCustom {
     
     // Find by order number
     Optional<Order> findByOrderNumber(String orderNumber);
     
-    // Find orders by customer name (case insensitive, partial match)
-    Page<Order> findByCustomerNameContainingIgnoreCase(String customerName, Pageable pageable);
-    
-    // Find orders by status
-    Page<Order> findByStatus(Order.OrderStatus status, Pageable pageable);
-    
     // Find orders by customer email
     List<Order> findByCustomerEmail(String customerEmail);
     
-    // Find orders within date range
-    @Query("SELECT o FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate ORDER BY o.orderDate DESC")
-    Page<Order> findByOrderDateBetween(@Param("startDate") LocalDateTime startDate, 
-                                      @Param("endDate") LocalDateTime endDate, 
-                                      Pageable pageable);
+    // Order count and amount total for every status in one grouped query
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount, SUM(o.totalAmount) AS totalAmount " +
+           "FROM Order o GROUP BY o.status")
+    List<StatusTotals> aggregateByStatus();
+    
+    // Order count and amount total per order day and status in [from, to), a range scan of the order_date index
+    @Query("SELECT cast(o.orderDate AS LocalDate) AS day, o.status AS status, " +
+           "COUNT(o) AS orderCount, SUM(o.totalAmount) AS totalAmount FROM Order o " +
+           "WHERE o.orderDate >= :from AND o.orderDate < :to " +
+           "GROUP BY cast(o.orderDate AS LocalDate), o.status")
+    List<DayStatusTotals> aggregateByDayAndStatus(@Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+    
+    // Order count and amount total per order day and status over all orders
+    @Query("SELECT cast(o.orderDate AS LocalDate) AS day, o.status AS status, " +
+           "COUNT(o) AS orderCount, SUM(o.totalAmount) AS totalAmount FROM Order o " +
+           "GROUP BY cast(o.orderDate AS LocalDate), o.status")
+    List<DayStatusTotals> aggregateByDayAndStatus();
     
-    // Complex search query with multiple filters
-    @Query("SELECT o FROM Order o WHERE " +
-           "(:orderNumber IS NULL OR o.orderNumber LIKE %:orderNumber%) AND " +
-           "(:customerName IS NULL OR LOWER(o.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
-           "(:status IS NULL OR o.status = :status) AND " +
-           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
-           "(:endDate IS NULL OR o.orderDate <= :endDate) " +
-           "ORDER BY o.orderDate DESC")
-    Page<Order> findOrdersWithFilters(@Param("orderNumber") String orderNumber,
-                                     @Param("customerName") String customerName,
-                                     @Param("status") Order.OrderStatus status,
-                                     @Param("startDate") LocalDateTime startDate,
-                                     @Param("endDate") LocalDateTime endDate,
-                                     Pageable pageable);
+    // Stream the columns the search index needs; must be consumed inside a transaction.
+    // In id order, so every posting list insert is an append. The fetch size needs
+    // useCursorFetch=true on MySQL, see OrderRepositoryCustomImpl.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.customerName AS customerName FROM Order o " +
+           "ORDER BY o.id")
+    Stream<SearchFields> streamSearchFields();
     
-    // Find recent orders
-    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC")
-    Page<Order> findRecentOrders(Pageable pageable);
+    // Projection for streamSearchFields
+    interface SearchFields {
+        Long getId();
+        String getOrderNumber();
+        String getCustomerName();
+    }
     
-    // Count orders by status
-    long countByStatus(Order.OrderStatus status);
+    // Projection for aggregateByStatus
+    interface StatusTotals {
+        Order.OrderStatus getStatus();
+        long getOrderCount();
+        BigDecimal getTotalAmount();
+    }
     
-    // Find orders for export (without pagination)
-    @Query("SELECT o FROM Order o WHERE " +
-           "(:orderNumber IS NULL OR o.orderNumber LIKE %:orderNumber%) AND " +
-           "(:customerName IS NULL OR LOWER(o.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) AND " +
-           "(:status IS NULL OR o.status = :status) AND " +
-           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
-           "(:endDate IS NULL OR o.orderDate <= :endDate) " +
-           "ORDER BY o.orderDate DESC")
-    List<Order> findOrdersForExport(@Param("orderNumber") String orderNumber,
-                                   @Param("customerName") String customerName,
-                                   @Param("status") Order.OrderStatus status,
-                                   @Param("startDate") LocalDateTime startDate,
-                                   @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+    // Projection for aggregateByDayAndStatus
+    interface DayStatusTotals {
+        LocalDate getDay();
+        Order.OrderStatus getStatus();
+        long getOrderCount();
+        BigDecimal getTotalAmount();
+    }
+}
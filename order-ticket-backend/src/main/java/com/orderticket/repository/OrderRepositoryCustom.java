@@ -0,0 +1,38 @@
+package com.orderticket.repository;
+
+import com.orderticket.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+// Specification queries that JpaSpecificationExecutor can't express:
+// count-free slices, cursor-backed streams and record projections.
+// Projection types are records whose component names are Order attributes;
+// only those columns are selected, through a constructor expression.
+public interface OrderRepositoryCustom {
+    
+    // First size rows matching the specification, fetching one extra row to
+    // tell whether more follow instead of running a count query
+    Slice<Order> findSlice(Specification<Order> spec, Sort sort, int size);
+    
+    // Stream matching rows through a forward-only JDBC cursor; must be consumed
+    // inside a transaction and closed afterwards
+    Stream<Order> streamAll(Specification<Order> spec, Sort sort);
+    
+    // Page of projected rows, with a count query for the total
+    <R> Page<R> findProjected(Specification<Order> spec, Class<R> type, Pageable pageable);
+    
+    // Count-free slice of projected rows, like findSlice
+    <R> Slice<R> findProjectedSlice(Specification<Order> spec, Class<R> type, Sort sort, int size);
+    
+    // Cursor-backed stream of projected rows, like streamAll
+    <R> Stream<R> streamProjected(Specification<Order> spec, Class<R> type, Sort sort);
+    
+    // Number of matching rows, but stops counting at limit so a broad filter
+    // costs no more than reading limit ids
+    long countUpTo(Specification<Order> spec, int limit);
+}
@@ -0,0 +1,148 @@
+package com.orderticket.repository;
+
+import com.orderticket.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaDerivedRoot;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.lang.reflect.RecordComponent;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+    
+    // Rows fetched per round trip while streaming. MySQL Connector/J ignores the
+    // fetch size unless the JDBC URL has useCursorFetch=true; without it the whole
+    // result set is loaded into memory before the first row is returned.
+    private static final int STREAM_FETCH_SIZE = 500;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Slice<Order> findSlice(Specification<Order> spec, Sort sort, int size) {
+        return findProjectedSlice(spec, Order.class, sort, size);
+    }
+    
+    @Override
+    public Stream<Order> streamAll(Specification<Order> spec, Sort sort) {
+        return streamProjected(spec, Order.class, sort);
+    }
+    
+    @Override
+    public <R> Page<R> findProjected(Specification<Order> spec, Class<R> type, Pageable pageable) {
+        TypedQuery<R> query = entityManager.createQuery(buildQuery(spec, type, pageable.getSort()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<R> content = query.getResultList();
+        if (pageable.isUnpaged() || (pageable.getOffset() == 0 && content.size() < pageable.getPageSize())) {
+            // The page holds everything there is, no count needed
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        return new PageImpl<>(content, pageable, count(spec));
+    }
+    
+    @Override
+    public <R> Slice<R> findProjectedSlice(Specification<Order> spec, Class<R> type, Sort sort, int size) {
+        List<R> rows = entityManager.createQuery(buildQuery(spec, type, sort))
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > size;
+        List<R> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+    
+    @Override
+    public <R> Stream<R> streamProjected(Specification<Order> spec, Class<R> type, Sort sort) {
+        return entityManager.createQuery(buildQuery(spec, type, sort))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+    
+    // select count(d.id) from (select o.id from Order o where ... fetch first :limit rows) d,
+    // so the database stops at limit and only a single number comes back
+    @Override
+    public long countUpTo(Specification<Order> spec, int limit) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        JpaCriteriaQuery<Long> query = cb.createQuery(Long.class);
+        JpaSubQuery<Long> ids = query.subquery(Long.class);
+        Root<Order> root = ids.from(Order.class);
+        // Items selected by a subquery in the from clause must be aliased
+        Path<Long> id = root.get("id");
+        id.alias("id");
+        ids.select(id);
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            ids.where(predicate);
+        }
+        ids.fetch(limit);
+        JpaDerivedRoot<Long> limited = query.from(ids);
+        query.select(cb.count(limited.get("id")));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+    
+    private <R> CriteriaQuery<R> buildQuery(Specification<Order> spec, Class<R> type, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(type);
+        Root<Order> root = query.from(Order.class);
+        if (type != Order.class) {
+            query.select(cb.construct(type, selections(type, root)));
+        }
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return query;
+    }
+    
+    private long count(Specification<Order> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Order> root = query.from(Order.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+    
+    // One path per record component, in canonical constructor order
+    private static Selection<?>[] selections(Class<?> type, Root<Order> root) {
+        RecordComponent[] components = type.getRecordComponents();
+        if (components == null) {
+            throw new IllegalArgumentException(type.getName() + " is not a record");
+        }
+        Selection<?>[] selections = new Selection<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            selections[i] = root.get(components[i].getName());
+        }
+        return selections;
+    }
+}
@@ -0,0 +1,95 @@
+package com.orderticket.repository;
+
+import com.orderticket.entity.Order;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Criteria predicates for order searches. Absent filters add no predicate at all,
+// so the generated SQL only contains conditions the planner can use indexes for.
+public final class OrderSpecifications {
+    
+    private static final char LIKE_ESCAPE = '\\';
+    
+    // Input that starts like an order number ("ORD-", "ORD-2024-0") is matched as a
+    // prefix so the unique order_number index can be range-scanned. A trailing '*'
+    // forces prefix matching for any input.
+    private static final Pattern ORDER_NUMBER_PREFIX = Pattern.compile("^[A-Za-z]{2,}-.*");
+    
+    private OrderSpecifications() {
+    }
+    
+    public static Specification<Order> withFilters(String orderNumber, String customerName,
+                                                   Order.OrderStatus status, LocalDateTime startDate,
+                                                   LocalDateTime endDate) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            
+            if (StringUtils.hasText(orderNumber)) {
+                String value = orderNumber.trim();
+                if (value.endsWith("*")) {
+                    predicates.add(cb.like(root.get("orderNumber"),
+                        escapeLike(value.substring(0, value.length() - 1)) + "%", LIKE_ESCAPE));
+                } else if (ORDER_NUMBER_PREFIX.matcher(value).matches()) {
+                    predicates.add(cb.like(root.get("orderNumber"), escapeLike(value) + "%", LIKE_ESCAPE));
+                } else {
+                    predicates.add(cb.like(root.get("orderNumber"), "%" + escapeLike(value) + "%", LIKE_ESCAPE));
+                }
+            }
+            if (StringUtils.hasText(customerName)) {
+                predicates.add(cb.like(cb.lower(root.get("customerName")),
+                    "%" + escapeLike(customerName.trim().toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("orderDate"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<LocalDateTime>get("orderDate"), endDate));
+            }
+            
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
+    // Keyset condition: rows strictly after (timestamp, id) in (attribute DESC, id DESC) order
+    public static Specification<Order> before(String attribute, LocalDateTime timestamp, Long id) {
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.<LocalDateTime>get(attribute), timestamp),
+            cb.and(cb.equal(root.get(attribute), timestamp), cb.lessThan(root.<Long>get("id"), id)));
+    }
+    
+    // Restrict to the given ids, e.g. candidates from the search index
+    public static Specification<Order> idIn(long[] ids) {
+        return (root, query, cb) -> {
+            if (ids.length == 0) {
+                return cb.disjunction();
+            }
+            List<Long> values = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                values.add(id);
+            }
+            return root.get("id").in(values);
+        };
+    }
+    
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.orderticket.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index from character n-grams to ids. Works on chars rather than
+// words, so it needs no tokenizer and handles Chinese names like ASCII codes.
+// Each text is indexed with every gram length from minGram to maxGram; queries
+// use the longest length available so the posting lists stay selective.
+public class NgramIndex {
+
+    private final int minGram;
+    private final int maxGram;
+    private final Map<String, LongPostingList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public NgramIndex(int minGram, int maxGram) {
+        if (minGram < 1 || maxGram < minGram) {
+            throw new IllegalArgumentException("Invalid gram range " + minGram + ".." + maxGram);
+        }
+        this.minGram = minGram;
+        this.maxGram = maxGram;
+    }
+
+    public void add(long id, String text) {
+        if (text == null) {
+            return;
+        }
+        Set<String> grams = gramsForIndexing(normalize(text));
+        lock.writeLock().lock();
+        try {
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, key -> new LongPostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id, String text) {
+        if (text == null) {
+            return;
+        }
+        Set<String> grams = gramsForIndexing(normalize(text));
+        lock.writeLock().lock();
+        try {
+            for (String gram : grams) {
+                LongPostingList list = postings.get(gram);
+                if (list != null && list.remove(id) && list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Sorted ids of texts containing every gram of the query: a superset of the
+    // texts containing the query as a substring. Returns null when the query is
+    // shorter than the smallest indexed gram and the index can't narrow anything.
+    public long[] candidates(String query) {
+        if (query == null) {
+            return null;
+        }
+        String normalized = normalize(query);
+        int gramLength = Math.min(maxGram, normalized.length());
+        if (gramLength < minGram) {
+            return null;
+        }
+        Set<String> grams = grams(normalized, gramLength);
+
+        lock.readLock().lock();
+        try {
+            List<LongPostingList> lists = new ArrayList<>(grams.size());
+            for (String gram : grams) {
+                LongPostingList list = postings.get(gram);
+                if (list == null) {
+                    return new long[0];
+                }
+                lists.add(list);
+            }
+            // Start from the rarest gram so the intermediate result stays small
+            lists.sort(Comparator.comparingInt(LongPostingList::size));
+            long[] result = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = lists.get(i).intersect(result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<String> gramsForIndexing(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int length = minGram; length <= maxGram; length++) {
+            grams.addAll(grams(text, length));
+        }
+        return grams;
+    }
+
+    private static Set<String> grams(String text, int length) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + length <= text.length(); i++) {
+            grams.add(text.substring(i, i + length));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
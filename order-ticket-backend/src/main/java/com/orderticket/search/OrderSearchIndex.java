@@ -0,0 +1,195 @@
+package com.orderticket.search;
+
+import com.orderticket.config.WorkerThreads;
+import com.orderticket.event.OrderChangedEvent;
+import com.orderticket.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// In-process n-gram index over customer names and order numbers. Substring
+// searches ask it for candidate ids first, so the database only has to check
+// a handful of rows by primary key instead of scanning with LIKE '%..%'.
+// Loaded in the background after startup and kept in sync by order change
+// events after commit. Writes this node never sees (other instances, direct
+// SQL) are picked up by a scheduled rebuild, which loads a fresh index while
+// the current one keeps serving and swaps it in when done.
+@Component
+public class OrderSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSearchIndex.class);
+
+    // Names are short (often two Chinese characters): index single chars and bigrams.
+    // Order numbers share long common prefixes: trigrams keep posting lists small.
+    private volatile NgramIndex customerNames = new NgramIndex(1, 2);
+    private volatile NgramIndex orderNumbers = new NgramIndex(3, 3);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${order.search.ngram.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Above this many candidates an IN list stops paying off; let the database scan
+    @Value("${order.search.ngram.max-candidates:1000}")
+    private int maxCandidates;
+
+    private volatile boolean ready;
+    private boolean building;
+    private final List<OrderChangedEvent> pendingEvents = new ArrayList<>();
+
+    // The first build scans the whole table, so it runs off the startup thread;
+    // searches use the database until it is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = WorkerThreads.factory("order-search-index-", virtualThreads).newThread(() -> {
+            try {
+                build();
+            } catch (RuntimeException e) {
+                log.warn("Order search index build failed, retrying at the next scheduled rebuild", e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Scheduled(fixedDelayString = "${order.search.ngram.rebuild-interval-ms:900000}",
+               initialDelayString = "${order.search.ngram.rebuild-interval-ms:900000}")
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (building) {
+                return;
+            }
+            building = true;
+        }
+        NgramIndex names = new NgramIndex(1, 2);
+        NgramIndex numbers = new NgramIndex(3, 3);
+        long started = System.currentTimeMillis();
+        long[] indexed = {0};
+
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<OrderRepository.SearchFields> rows = orderRepository.streamSearchFields()) {
+                    rows.forEach(row -> {
+                        names.add(row.getId(), row.getCustomerName());
+                        numbers.add(row.getId(), row.getOrderNumber());
+                        indexed[0]++;
+                    });
+                }
+            });
+
+            synchronized (this) {
+                // Replay changes committed while the table was being read
+                pendingEvents.forEach(event -> apply(names, numbers, event));
+                customerNames = names;
+                orderNumbers = numbers;
+                ready = true;
+            }
+        } finally {
+            synchronized (this) {
+                pendingEvents.clear();
+                building = false;
+            }
+        }
+        log.info("Order search index built: {} orders, {} name grams, {} order number grams in {} ms",
+                 indexed[0], names.gramCount(), numbers.gramCount(),
+                 System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onOrderChanged(OrderChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // The current index keeps serving during a rebuild, so it stays current too
+        apply(customerNames, orderNumbers, event);
+        if (building) {
+            pendingEvents.add(event);
+        }
+    }
+
+    // Sorted candidate ids matching both text filters, or null when the index can't
+    // narrow the search (disabled, not built, query too short or too many matches).
+    // Candidates may include false positives; callers keep the LIKE predicates.
+    public long[] findCandidates(String orderNumber, String customerName) {
+        if (!enabled || !ready) {
+            return null;
+        }
+        long[] candidates = null;
+        if (StringUtils.hasText(orderNumber)) {
+            candidates = orderNumbers.candidates(stripPrefixWildcard(orderNumber));
+        }
+        if (StringUtils.hasText(customerName)) {
+            long[] nameCandidates = customerNames.candidates(customerName);
+            candidates = candidates == null ? nameCandidates : intersect(candidates, nameCandidates);
+        }
+        if (candidates != null && candidates.length > maxCandidates) {
+            return null;
+        }
+        return candidates;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private static void apply(NgramIndex customerNames, NgramIndex orderNumbers, OrderChangedEvent event) {
+        OrderChangedEvent.Snapshot before = event.before();
+        OrderChangedEvent.Snapshot after = event.after();
+        if (before != null) {
+            customerNames.remove(before.id(), before.customerName());
+            orderNumbers.remove(before.id(), before.orderNumber());
+        }
+        if (after != null) {
+            customerNames.add(after.id(), after.customerName());
+            orderNumbers.add(after.id(), after.orderNumber());
+        }
+    }
+
+    private static String stripPrefixWildcard(String orderNumber) {
+        String value = orderNumber.trim();
+        return value.endsWith("*") ? value.substring(0, value.length() - 1) : value;
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        LongPostingList list = new LongPostingList();
+        for (long id : a) {
+            list.add(id);
+        }
+        return list.intersect(b);
+    }
+}
@@ -0,0 +1,89 @@
+package com.orderticket.service;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.math.BigDecimal;
+
+// Column widths for streamed sheets, estimated from the text as it is written
+// instead of measuring every cell with AWT font metrics afterwards. A value's
+// display width counts East Asian wide characters as two; the widest value of
+// each column sets its width, clamped to [minWidth, maxWidth] in Excel's 1/256
+// character units. Not thread-safe; use one instance per sheet.
+public class ColumnWidthEstimator {
+
+    private static final int UNITS_PER_CHAR = 256;
+    private static final int PADDING_CHARS = 2;
+
+    private final int[] maxChars;
+    private final int minWidth;
+    private final int maxWidth;
+    // Display width at which a column is already clamped, so longer values need no scan
+    private final int saturatedChars;
+
+    public ColumnWidthEstimator(int columns, int minWidth, int maxWidth) {
+        this.maxChars = new int[columns];
+        this.minWidth = minWidth;
+        this.maxWidth = maxWidth;
+        this.saturatedChars = (maxWidth + UNITS_PER_CHAR - 1) / UNITS_PER_CHAR - PADDING_CHARS;
+    }
+
+    public void track(int column, String value) {
+        if (value == null || maxChars[column] >= saturatedChars) {
+            return;
+        }
+        int width = displayWidth(value, saturatedChars);
+        if (width > maxChars[column]) {
+            maxChars[column] = width;
+        }
+    }
+
+    // Width of the plain notation, e.g. -1234.50 is 8 characters
+    public void track(int column, BigDecimal value) {
+        if (value == null) {
+            return;
+        }
+        int scale = value.scale();
+        int width = scale > 0
+            ? Math.max(value.precision() - scale, 1) + 1 + scale
+            : value.precision() - scale;
+        if (value.signum() < 0) {
+            width++;
+        }
+        if (width > maxChars[column]) {
+            maxChars[column] = width;
+        }
+    }
+
+    // Width in 1/256 character units, padded and clamped
+    public int getWidth(int column) {
+        int width = (maxChars[column] + PADDING_CHARS) * UNITS_PER_CHAR;
+        return Math.max(minWidth, Math.min(maxWidth, width));
+    }
+
+    public void applyTo(Sheet sheet) {
+        for (int i = 0; i < maxChars.length; i++) {
+            sheet.setColumnWidth(i, getWidth(i));
+        }
+    }
+
+    // Display width in character cells, scanning no further than limit
+    static int displayWidth(String value, int limit) {
+        int width = 0;
+        for (int i = 0; i < value.length() && width < limit; i++) {
+            width += isWide(value.charAt(i)) ? 2 : 1;
+        }
+        return width;
+    }
+
+    // CJK ideographs, kana, Hangul and fullwidth forms. A surrogate pair (CJK
+    // extension or emoji) counts one per half, two in total.
+    private static boolean isWide(char c) {
+        return (c >= 0x1100 && c <= 0x115F)
+            || (c >= 0x2E80 && c <= 0xA4CF)
+            || (c >= 0xAC00 && c <= 0xD7A3)
+            || (c >= 0xF900 && c <= 0xFAFF)
+            || (c >= 0xFE30 && c <= 0xFE4F)
+            || (c >= 0xFF00 && c <= 0xFF60)
+            || (c >= 0xFFE0 && c <= 0xFFE6);
+    }
+}
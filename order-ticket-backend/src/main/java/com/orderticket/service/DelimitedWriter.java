@@ -0,0 +1,286 @@
+package com.orderticket.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+// Allocation-free CSV/TSV writer. Values are encoded as UTF-8 straight into one
+// reusable byte buffer, which is drained to a channel when full: no String per
+// cell, no Writer/encoder layers. Numbers and dates are formatted digit by digit.
+// CSV follows RFC 4180 (quotes only when needed, CRLF); TSV has no quoting, so
+// tab, line breaks and backslash are escaped as \t \n \r \\ instead.
+public class DelimitedWriter {
+
+    public enum Dialect {
+        CSV(',', "\r\n"),
+        TSV('\t', "\n");
+
+        private final byte delimiter;
+        private final byte[] lineEnd;
+
+        Dialect(char delimiter, String lineEnd) {
+            this.delimiter = (byte) delimiter;
+            this.lineEnd = lineEnd.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final Dialect dialect;
+    private final byte[] buffer;
+    private final ByteBuffer byteBuffer;
+    private final byte[] digits = new byte[20];
+    private int position;
+    private boolean firstField = true;
+
+    public DelimitedWriter(OutputStream out, Dialect dialect) {
+        this(out, dialect, DEFAULT_BUFFER_SIZE);
+    }
+
+    DelimitedWriter(OutputStream out, Dialect dialect, int bufferSize) {
+        this.channel = Channels.newChannel(out);
+        this.dialect = dialect;
+        this.buffer = new byte[Math.max(bufferSize, 64)];
+        this.byteBuffer = ByteBuffer.wrap(buffer);
+    }
+
+    public DelimitedWriter field(String value) throws IOException {
+        separator();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (dialect == Dialect.TSV) {
+            writeEscaped(value);
+        } else if (needsQuotes(value)) {
+            writeByte('"');
+            writeQuoted(value);
+            writeByte('"');
+        } else {
+            writeUtf8(value);
+        }
+        return this;
+    }
+
+    public DelimitedWriter field(Long value) throws IOException {
+        separator();
+        if (value != null) {
+            writeLong(value);
+        }
+        return this;
+    }
+
+    // Plain notation with the value's own scale, e.g. 1234.50
+    public DelimitedWriter field(BigDecimal value) throws IOException {
+        separator();
+        if (value == null) {
+            return this;
+        }
+        int scale = value.scale();
+        if (scale < 0 || scale > 18 || value.precision() > 18) {
+            writeUtf8(value.toPlainString());
+            return this;
+        }
+        long unscaled = value.scaleByPowerOfTen(scale).longValue();
+        if (unscaled < 0) {
+            writeByte('-');
+            unscaled = -unscaled;
+        }
+        if (scale == 0) {
+            writeLong(unscaled);
+            return this;
+        }
+        long divisor = POWERS_OF_TEN[scale];
+        writeLong(unscaled / divisor);
+        writeByte('.');
+        writePadded(unscaled % divisor, scale);
+        return this;
+    }
+
+    // ISO-8601 local date-time, always with seconds: 2024-01-31T09:05:00[.fraction]
+    public DelimitedWriter field(LocalDateTime value) throws IOException {
+        separator();
+        if (value == null) {
+            return this;
+        }
+        writePadded(value.getYear(), 4);
+        writeByte('-');
+        writePadded(value.getMonthValue(), 2);
+        writeByte('-');
+        writePadded(value.getDayOfMonth(), 2);
+        writeByte('T');
+        writePadded(value.getHour(), 2);
+        writeByte(':');
+        writePadded(value.getMinute(), 2);
+        writeByte(':');
+        writePadded(value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano != 0) {
+            writeByte('.');
+            if (nano % 1_000_000 == 0) {
+                writePadded(nano / 1_000_000, 3);
+            } else if (nano % 1_000 == 0) {
+                writePadded(nano / 1_000, 6);
+            } else {
+                writePadded(nano, 9);
+            }
+        }
+        return this;
+    }
+
+    public DelimitedWriter endRecord() throws IOException {
+        ensure(dialect.lineEnd.length);
+        System.arraycopy(dialect.lineEnd, 0, buffer, position, dialect.lineEnd.length);
+        position += dialect.lineEnd.length;
+        firstField = true;
+        return this;
+    }
+
+    // Drain the buffer to the channel; the underlying stream is left open
+    public void flush() throws IOException {
+        byteBuffer.clear().limit(position);
+        while (byteBuffer.hasRemaining()) {
+            channel.write(byteBuffer);
+        }
+        position = 0;
+    }
+
+    private void separator() throws IOException {
+        if (firstField) {
+            firstField = false;
+        } else {
+            writeByte(dialect.delimiter);
+        }
+    }
+
+    private boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeQuoted(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writeByte('"');
+            }
+            i = writeChar(value, i);
+        }
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            char escape = switch (c) {
+                case '\t' -> 't';
+                case '\n' -> 'n';
+                case '\r' -> 'r';
+                case '\\' -> '\\';
+                default -> 0;
+            };
+            if (escape != 0) {
+                writeByte('\\');
+                writeByte(escape);
+            } else {
+                i = writeChar(value, i);
+            }
+        }
+    }
+
+    private void writeUtf8(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            i = writeChar(value, i);
+        }
+    }
+
+    // Encode the char at index (and its low surrogate, if any); returns the last index consumed
+    private int writeChar(String value, int index) throws IOException {
+        ensure(4);
+        char c = value.charAt(index);
+        if (c < 0x80) {
+            buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            return index + 1;
+        } else if (Character.isSurrogate(c)) {
+            // Unpaired surrogate, not encodable
+            buffer[position++] = '?';
+        } else {
+            buffer[position++] = (byte) (0xE0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return index;
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeUtf8(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        ensure(count);
+        while (count > 0) {
+            buffer[position++] = digits[--count];
+        }
+    }
+
+    // Left-padded with zeros to width digits; wider values are written as they are
+    private void writePadded(long value, int width) throws IOException {
+        if (value < 0 || value >= POWERS_OF_TEN[width]) {
+            writeLong(value);
+            return;
+        }
+        ensure(width);
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void writeByte(int b) throws IOException {
+        ensure(1);
+        buffer[position++] = (byte) b;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            flush();
+        }
+    }
+}
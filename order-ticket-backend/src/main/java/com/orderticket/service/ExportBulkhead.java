@@ -0,0 +1,134 @@
+package com.orderticket.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Admission control for the streaming export endpoints so a burst of exports
+// can't take the CPU and heap needed by interactive queries. The body takes a
+// permit when it starts on the export stream pool and gives it back once it is
+// written, so a body that never runs holds nothing. At most maxWaiting bodies
+// wait, each for at most maxWait; everyone else is turned away with a retry hint.
+@Component
+public class ExportBulkhead implements MeterBinder {
+    
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    
+    public ExportBulkhead(@Value("${order.export.bulkhead.max-concurrent:4}") int maxConcurrent,
+                          @Value("${order.export.bulkhead.max-waiting:8}") int maxWaiting,
+                          @Value("${order.export.bulkhead.max-wait:2s}") Duration maxWait,
+                          @Value("${order.export.bulkhead.retry-after:10s}") Duration retryAfter) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+    
+    // Wrap a body so it runs under a permit. Requests that could not even wait
+    // are rejected right away, before the async dispatch; the permit itself is
+    // only taken by the returned body, and released when it finishes or fails.
+    public StreamingResponseBody guard(StreamingResponseBody body) {
+        if (permits.availablePermits() == 0 && waiting.get() >= maxWaiting) {
+            reject();
+        }
+        return outputStream -> {
+            acquire();
+            try {
+                body.writeTo(outputStream);
+            } finally {
+                permits.release();
+            }
+        };
+    }
+    
+    private void acquire() {
+        if (permits.tryAcquire()) {
+            admitted.increment();
+            return;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            reject();
+        }
+        try {
+            if (!permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                reject();
+            }
+            admitted.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject();
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+    
+    private void reject() {
+        rejected.increment();
+        throw new BulkheadFullException(getRetryAfterSeconds());
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("order.export.bulkhead.active", this, ExportBulkhead::getActive)
+                .description("Exports currently holding a permit")
+                .register(registry);
+        Gauge.builder("order.export.bulkhead.waiting", this, ExportBulkhead::getWaiting)
+                .description("Exports waiting for a permit")
+                .register(registry);
+        Gauge.builder("order.export.bulkhead.max.concurrent", this, ExportBulkhead::getMaxConcurrent)
+                .register(registry);
+        FunctionCounter.builder("order.export.bulkhead.admitted", this, ExportBulkhead::getAdmitted)
+                .register(registry);
+        FunctionCounter.builder("order.export.bulkhead.rejected", this, ExportBulkhead::getRejected)
+                .description("Exports turned away with 429")
+                .register(registry);
+    }
+    
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public int getActive() { return maxConcurrent - permits.availablePermits(); }
+    public int getWaiting() { return waiting.get(); }
+    public long getAdmitted() { return admitted.sum(); }
+    public long getRejected() { return rejected.sum(); }
+    public long getRetryAfterSeconds() { return retryAfter.toSeconds(); }
+    
+    public BulkheadStatistics getStatistics() {
+        return new BulkheadStatistics(maxConcurrent, getActive(), maxWaiting, getWaiting(),
+                                      getAdmitted(), getRejected());
+    }
+    
+    public record BulkheadStatistics(int maxConcurrent, int active, int maxWaiting, int waiting,
+                                     long admitted, long rejected) {
+    }
+    
+    public static class BulkheadFullException extends RuntimeException {
+        private final long retryAfterSeconds;
+        
+        public BulkheadFullException(long retryAfterSeconds) {
+            super("Too many exports in progress, retry in " + retryAfterSeconds + "s");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+        
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
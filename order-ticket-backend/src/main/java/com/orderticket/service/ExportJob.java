@@ -0,0 +1,129 @@
+package com.orderticket.service;
+
+import com.orderticket.dto.ExportJobRequest;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// State of one asynchronous export. Progress fields are written by the worker
+// thread and read by status polls, so they are atomic or volatile.
+public class ExportJob {
+    
+    public enum Format {
+        EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        JSON("json", "application/json"),
+        CSV("csv", "text/csv"),
+        TSV("tsv", "text/tab-separated-values"),
+        PDF_BATCH("pdf", "application/pdf"),
+        INVOICE_ZIP("zip", "application/zip");
+        
+        private final String extension;
+        private final String contentType;
+        
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+        
+        public String getExtension() { return extension; }
+        public String getContentType() { return contentType; }
+    }
+    
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+        
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+    
+    private final String id;
+    private final String owner;
+    private final ExportJobRequest request;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final AtomicBoolean slotReleased = new AtomicBoolean();
+    private volatile long totalRows;
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private volatile long fileSize;
+    private volatile Path file;
+    private volatile Future<?> future;
+    
+    ExportJob(String id, String owner, ExportJobRequest request) {
+        this.id = id;
+        this.owner = owner;
+        this.request = request;
+    }
+    
+    void started(long totalRows) {
+        this.totalRows = totalRows;
+        this.startedAt = LocalDateTime.now();
+        this.status = Status.RUNNING;
+    }
+    
+    void rowProcessed() {
+        rowsProcessed.incrementAndGet();
+    }
+    
+    void completed(Path file, long fileSize) {
+        this.file = file;
+        this.fileSize = fileSize;
+        finish(Status.COMPLETED);
+    }
+    
+    void failed(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+    
+    void finish(Status status) {
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+    
+    // Getters
+    public String getId() { return id; }
+    public ExportJob.Format getFormat() { return request.format(); }
+    public Status getStatus() { return status; }
+    public long getRowsProcessed() { return rowsProcessed.get(); }
+    public long getTotalRows() { return totalRows; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+    public long getFileSize() { return fileSize; }
+    
+    // Percentage of rows processed, 100 once completed
+    public int getProgress() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        long total = totalRows;
+        return total > 0 ? (int) Math.min(99, rowsProcessed.get() * 100 / total) : 0;
+    }
+    
+    public String getFileName() {
+        return "orders_export_" + id + "." + request.format().getExtension();
+    }
+    
+    // Internal state, not part of the JSON view
+    String owner() { return owner; }
+    ExportJobRequest request() { return request; }
+    Path file() { return file; }
+    Future<?> future() { return future; }
+    void setFuture(Future<?> future) { this.future = future; }
+    
+    // True only for the first caller: the worker starting the job, or a cancel
+    // that comes before it. Whoever claims the job releases its slot.
+    boolean claim() { return claimed.compareAndSet(false, true); }
+    
+    // True only for the first caller, so the per-user slot is released once
+    boolean releaseSlot() { return slotReleased.compareAndSet(false, true); }
+}
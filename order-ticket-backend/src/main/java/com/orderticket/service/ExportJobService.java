@@ -0,0 +1,280 @@
+package com.orderticket.service;
+
+import com.orderticket.config.WorkerThreads;
+import com.orderticket.dto.ExportJobRequest;
+import com.orderticket.entity.Order;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Runs exports off the request thread. Jobs are queued on a bounded pool, write
+// their artifact to a local spool directory and are kept for a limited time so
+// clients can poll progress and download the file, resuming with Range requests.
+@Service
+public class ExportJobService implements MeterBinder {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExportJobService.class);
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private InvoiceService invoiceService;
+    
+    @Autowired
+    private InvoiceArchiveService invoiceArchiveService;
+    
+    @Value("${order.export.jobs.dir:${java.io.tmpdir}/order-ticket/exports}")
+    private String spoolDirectory;
+    
+    @Value("${order.export.jobs.workers:2}")
+    private int workers;
+    
+    @Value("${order.export.jobs.queue-capacity:20}")
+    private int queueCapacity;
+    
+    // Queued plus running jobs allowed per user
+    @Value("${order.export.jobs.max-per-user:2}")
+    private int maxJobsPerUser;
+    
+    // How long finished jobs and their files are kept
+    @Value("${order.export.jobs.ttl:1h}")
+    private Duration ttl;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Integer> activeJobsPerUser = new ConcurrentHashMap<>();
+    
+    private Path spoolDir;
+    private ThreadPoolExecutor executor;
+    
+    @PostConstruct
+    void init() throws IOException {
+        spoolDir = Paths.get(spoolDirectory);
+        Files.createDirectories(spoolDir);
+        // Job state is in memory only, so files from a previous run are orphans
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            files.forEach(this::deleteQuietly);
+        }
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), WorkerThreads.factory("export-job-", virtualThreads));
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("order.export.jobs.queued", executor, pool -> pool.getQueue().size())
+                .description("Export jobs waiting for a worker")
+                .register(registry);
+        Gauge.builder("order.export.jobs.running", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+    }
+    
+    public ExportJob submit(ExportJobRequest request, String owner) {
+        boolean[] accepted = {false};
+        activeJobsPerUser.compute(owner, (key, active) -> {
+            int running = active != null ? active : 0;
+            if (running >= maxJobsPerUser) {
+                return active;
+            }
+            accepted[0] = true;
+            return running + 1;
+        });
+        if (!accepted[0]) {
+            throw new ExportJobRejectedException(
+                "Too many running exports, at most " + maxJobsPerUser + " per user");
+        }
+        
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), owner, request);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            releaseSlot(job);
+            throw new ExportJobRejectedException("Export queue is full, try again later");
+        }
+        return job;
+    }
+    
+    public Optional<ExportJob> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+    
+    // Path of the finished artifact, empty while the job is still running or failed
+    public Optional<Path> findArtifact(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null || job.getStatus() != ExportJob.Status.COMPLETED) {
+            return Optional.empty();
+        }
+        return Optional.of(job.file());
+    }
+    
+    // Cancel a queued or running job, or discard a finished one
+    public boolean cancel(String id) {
+        ExportJob job = jobs.remove(id);
+        if (job == null) {
+            return false;
+        }
+        if (!job.getStatus().isFinished() && job.future() != null) {
+            job.future().cancel(true);
+            job.finish(ExportJob.Status.CANCELLED);
+            // A running job keeps its slot until the worker has actually stopped,
+            // which can be well after this (at the next row, or after a JDBC call).
+            // Only a job that never started frees it here.
+            if (job.claim()) {
+                releaseSlot(job);
+            }
+        }
+        if (job.file() != null) {
+            deleteQuietly(job.file());
+        }
+        return true;
+    }
+    
+    private void run(ExportJob job) {
+        if (!job.claim()) {
+            // Cancelled before it started; cancel released the slot
+            return;
+        }
+        ExportJobRequest request = job.request();
+        Path partFile = spoolDir.resolve(job.getId() + ".part");
+        try {
+            long totalRows = orderService.countOrdersForExport(request.orderNumber(), request.customerName(),
+                request.status(), request.startDate(), request.endDate());
+            job.started(totalRows);
+            
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                write(job, out);
+            }
+            
+            Path file = spoolDir.resolve(job.getFileName());
+            Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING);
+            job.completed(file, Files.size(file));
+        } catch (CancellationException e) {
+            job.finish(ExportJob.Status.CANCELLED);
+            deleteQuietly(partFile);
+        } catch (Exception e) {
+            log.warn("Export job {} failed", job.getId(), e);
+            job.failed(e.getMessage());
+            deleteQuietly(partFile);
+        } finally {
+            releaseSlot(job);
+            if (!jobs.containsKey(job.getId()) && job.file() != null) {
+                // Cancelled while the file was being moved into place
+                deleteQuietly(job.file());
+            }
+        }
+    }
+    
+    private void releaseSlot(ExportJob job) {
+        if (job.releaseSlot()) {
+            activeJobsPerUser.computeIfPresent(job.owner(),
+                (owner, active) -> active > 1 ? active - 1 : null);
+        }
+    }
+    
+    private void write(ExportJob job, OutputStream out) {
+        ExportJobRequest request = job.request();
+        if (request.format() == ExportJob.Format.PDF_BATCH) {
+            // The batch summary only needs a handful of columns
+            orderService.streamOrderSummaries(request.orderNumber(), request.customerName(),
+                request.status(), request.startDate(), request.endDate(), rows -> {
+                    invoiceService.writeBatchPdfInvoices(track(job, rows), out);
+                    return null;
+                });
+            return;
+        }
+        orderService.streamOrdersForExport(request.orderNumber(), request.customerName(),
+            request.status(), request.startDate(), request.endDate(), orders -> {
+                Stream<Order> tracked = track(job, orders);
+                switch (request.format()) {
+                    case EXCEL -> exportService.exportOrdersToExcel(tracked, out);
+                    case JSON -> exportService.exportOrdersToJson(tracked, out);
+                    case CSV -> exportService.exportOrdersToDelimited(tracked, out, DelimitedWriter.Dialect.CSV, false);
+                    case TSV -> exportService.exportOrdersToDelimited(tracked, out, DelimitedWriter.Dialect.TSV, false);
+                    case INVOICE_ZIP -> invoiceArchiveService.writeInvoiceZip(tracked, out);
+                    default -> throw new IllegalStateException("Unexpected format " + request.format());
+                }
+                return null;
+            });
+    }
+    
+    // Count progress and stop at the next row once the job is cancelled
+    private static <T> Stream<T> track(ExportJob job, Stream<T> rows) {
+        return rows.peek(row -> {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+            job.rowProcessed();
+        });
+    }
+    
+    // Drop finished jobs and their files once they are older than the TTL
+    @Scheduled(fixedDelayString = "${order.export.jobs.cleanup-interval-ms:600000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.getStatus().isFinished() && job.getFinishedAt().isBefore(cutoff);
+            if (expired && job.file() != null) {
+                deleteQuietly(job.file());
+            }
+            return expired;
+        });
+    }
+    
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete export file {}", file, e);
+        }
+    }
+    
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public static class ExportJobRejectedException extends RuntimeException {
+        public ExportJobRejectedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.orderticket.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Timers and size figures for the export and rendering hot paths, tagged by
+// export format. Allocation is measured on the calling thread only, so work
+// handed to other threads (e.g. parallel invoice rendering) is not included.
+@Component
+public class ExportMetrics {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExportMetrics.class);
+    
+    // Rough bytes per row of each format, used for size estimates until enough
+    // rows have been exported to measure the real average
+    private static final Map<String, Integer> DEFAULT_BYTES_PER_ROW = Map.of(
+        "excel", 90, "json", 330, "ndjson", 310, "csv", 200, "tsv", 200, "pdf-batch", 150, "invoice-zip", 2500);
+    private static final double MIN_MEASURED_ROWS = 1000;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Run an export writer, counting the rows it consumes and the bytes it writes
+    public <T> void record(String format, Stream<T> orders, OutputStream outputStream,
+                           BiConsumer<Stream<T>, OutputStream> writer) {
+        long[] rows = {0};
+        CountingOutputStream counting = new CountingOutputStream(outputStream);
+        long allocatedBefore = allocatedBytes();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            writer.accept(orders.peek(order -> rows[0]++), counting);
+            outcome = "success";
+        } finally {
+            long nanos = sample.stop(Timer.builder("order.export")
+                    .description("Time to write one export")
+                    .tags("format", format, "outcome", outcome)
+                    .register(meterRegistry));
+            Counter.builder("order.export.rows")
+                    .tag("format", format)
+                    .register(meterRegistry)
+                    .increment(rows[0]);
+            DistributionSummary.builder("order.export.size")
+                    .baseUnit("bytes")
+                    .tag("format", format)
+                    .register(meterRegistry)
+                    .record(counting.count);
+            double seconds = nanos / 1e9;
+            if (seconds > 0) {
+                DistributionSummary.builder("order.export.throughput")
+                        .baseUnit("rows/s")
+                        .tag("format", format)
+                        .register(meterRegistry)
+                        .record(rows[0] / seconds);
+            }
+            long allocatedAfter = allocatedBytes();
+            if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+                DistributionSummary.builder("order.export.allocated")
+                        .baseUnit("bytes")
+                        .tag("format", format)
+                        .register(meterRegistry)
+                        .record(allocatedAfter - allocatedBefore);
+            }
+            log.debug("{} export {}: {} rows, {} bytes in {} ms", format, outcome, rows[0], counting.count,
+                      TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+    
+    // Time a single invoice rendering
+    public byte[] recordInvoiceRender(Supplier<byte[]> renderer) {
+        return Timer.builder("order.invoice.render")
+                .description("Time to render one PDF invoice")
+                .register(meterRegistry)
+                .record(renderer);
+    }
+    
+    // Expected file size per export format for the given number of rows
+    public Map<String, Long> estimateSizes(long rows) {
+        Map<String, Long> sizes = new TreeMap<>();
+        DEFAULT_BYTES_PER_ROW.forEach((format, fallback) ->
+            sizes.put(format, Math.round(rows * bytesPerRow(format, fallback))));
+        return sizes;
+    }
+    
+    // Average bytes per row over all exports recorded so far
+    private double bytesPerRow(String format, int fallback) {
+        Counter rows = meterRegistry.find("order.export.rows").tag("format", format).counter();
+        DistributionSummary size = meterRegistry.find("order.export.size").tag("format", format).summary();
+        if (rows == null || size == null || rows.count() < MIN_MEASURED_ROWS) {
+            return fallback;
+        }
+        return size.totalAmount() / rows.count();
+    }
+    
+    // Bytes allocated by the current thread so far, or -1 when the JVM can't tell
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+    
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+        
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.orderticket.service;
+
+import com.orderticket.dto.ExportEstimate;
+import com.orderticket.dto.OrderPreviewRow;
+import com.orderticket.entity.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Export preview and size estimate shown before a heavy export is started.
+// Both are bounded: the preview is a top-N query and the row count stops at
+// the cap, so they cost the same whether the filter matches 10 rows or 10 million.
+@Service
+public class ExportPreviewService {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ExportMetrics exportMetrics;
+    
+    @Value("${order.export.preview.size:10}")
+    private int defaultSize;
+    
+    @Value("${order.export.preview.max-size:100}")
+    private int maxSize;
+    
+    @Value("${order.export.preview.count-cap:100000}")
+    private int countCap;
+    
+    // First rows of the export, newest first; size defaults to the configured preview size
+    public List<OrderPreviewRow> getPreview(String orderNumber, String customerName,
+                                            Order.OrderStatus status, LocalDateTime startDate,
+                                            LocalDateTime endDate, Integer size) {
+        int limit = size != null ? Math.max(1, Math.min(size, maxSize)) : defaultSize;
+        return orderService.getExportPreview(orderNumber, customerName, status, startDate, endDate, limit);
+    }
+    
+    // Row count from the statistics cache when the filter allows it, otherwise
+    // a count that gives up at countCap rows
+    public ExportEstimate estimate(String orderNumber, String customerName,
+                                   Order.OrderStatus status, LocalDateTime startDate,
+                                   LocalDateTime endDate) {
+        Long cached = orderService.estimateOrderCount(orderNumber, customerName, status, startDate, endDate);
+        if (cached != null) {
+            return new ExportEstimate(cached, false, false, exportMetrics.estimateSizes(cached));
+        }
+        long counted = orderService.countOrdersForExportUpTo(
+            orderNumber, customerName, status, startDate, endDate, countCap + 1);
+        boolean capped = counted > countCap;
+        long rows = capped ? countCap : counted;
+        return new ExportEstimate(rows, !capped, capped, exportMetrics.estimateSizes(rows));
+    }
+}
@@ -1,7 +1,14 @@
 package com.orderticket.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.orderticket.entity.Order;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.Font;
@@ -9,135 +16,290 @@ import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class ExportService {
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
-    public byte[] exportOrdersToExcel(List<Order> orders) {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("订单数据");
-            
+    // Rows per worksheet in the .xlsx format, header row included
+    private static final int MAX_SHEET_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final String DATA_SHEET_NAME = "订单数据";
+    private static final String[] EXCEL_HEADERS = {
+        "订单号", "客户姓名", "客户邮箱", "客户电话", 
+        "总金额", "订单状态", "订单日期", "描述", "产品详情", "创建时间"
+    };
+    
+    // Column width bounds in 1/256 character units
+    private static final int MIN_COLUMN_WIDTH = 3000;
+    private static final int MAX_COLUMN_WIDTH = 15000;
+    
+    // CSV/TSV header; the names match the bulk import columns
+    private static final String[] DELIMITED_COLUMNS = {
+        "id", "orderNumber", "customerName", "customerEmail", "customerPhone", "totalAmount", "status",
+        "orderDate", "description", "productDetails", "createdAt", "updatedAt"
+    };
+    
+    // Number of rows kept in memory before SXSSF flushes them to its temp file
+    @Value("${order.export.excel.row-access-window:100}")
+    private int rowAccessWindowSize = 100;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ExportMetrics exportMetrics;
+    
+    // Streaming export: only the row window is held on heap, the rest goes to
+    // compressed temp files and is copied to the output stream on write.
+    // The orders are consumed in a single pass.
+    public void exportOrdersToExcel(Stream<Order> orders, OutputStream outputStream) {
+        exportMetrics.record("excel", orders, outputStream, this::writeExcel);
+    }
+    
+    private void writeExcel(Stream<Order> orders, OutputStream outputStream) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindowSize);
+        workbook.setCompressTempFiles(true);
+        try {
             // Create header style
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle dataStyle = createDataStyle(workbook);
             
-            // Create header row
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {
-                "订单号", "客户姓名", "客户邮箱", "客户电话", 
-                "总金额", "订单状态", "订单日期", "描述", "产品详情", "创建时间"
-            };
+            // Widths are tracked while writing; flushed rows can't be measured later.
+            // All data sheets share one estimate so their columns line up.
+            ColumnWidthEstimator widths = new ColumnWidthEstimator(EXCEL_HEADERS.length, MIN_COLUMN_WIDTH, MAX_COLUMN_WIDTH);
+            List<Sheet> dataSheets = new ArrayList<>();
+            dataSheets.add(createDataSheet(workbook, DATA_SHEET_NAME, headerStyle, widths));
             
-            for (int i = 0; i < headers.length; i++) {
-                headerRow.createCell(i).setCellValue(headers[i]);
-                headerRow.getCell(i).setCellStyle(headerStyle);
-            }
-            
-            // Create data rows
+            // Create data rows, collecting the summary figures on the way. A full
+            // sheet rolls over to 订单数据 (2), 订单数据 (3) and so on.
+            OrderSummaryAggregator summary = new OrderSummaryAggregator();
+            Sheet sheet = dataSheets.get(0);
             int rowNum = 1;
-            for (Order order : orders) {
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                Order order = iterator.next();
+                summary.accept(order);
+                
+                if (rowNum == MAX_SHEET_ROWS) {
+                    sheet = createDataSheet(workbook, DATA_SHEET_NAME + " (" + (dataSheets.size() + 1) + ")",
+                                            headerStyle, widths);
+                    dataSheets.add(sheet);
+                    rowNum = 1;
+                }
                 Row row = sheet.createRow(rowNum++);
                 
-                row.createCell(0).setCellValue(order.getOrderNumber());
-                row.createCell(1).setCellValue(order.getCustomerName());
-                row.createCell(2).setCellValue(order.getCustomerEmail() != null ? order.getCustomerEmail() : "");
-                row.createCell(3).setCellValue(order.getCustomerPhone() != null ? order.getCustomerPhone() : "");
+                setCell(row, 0, order.getOrderNumber(), dataStyle, widths);
+                setCell(row, 1, order.getCustomerName(), dataStyle, widths);
+                setCell(row, 2, order.getCustomerEmail() != null ? order.getCustomerEmail() : "", dataStyle, widths);
+                setCell(row, 3, order.getCustomerPhone() != null ? order.getCustomerPhone() : "", dataStyle, widths);
                 row.createCell(4).setCellValue(order.getTotalAmount().doubleValue());
-                row.createCell(5).setCellValue(order.getStatus().toString());
-                row.createCell(6).setCellValue(order.getOrderDate().format(DATE_FORMATTER));
-                row.createCell(7).setCellValue(order.getDescription() != null ? order.getDescription() : "");
-                row.createCell(8).setCellValue(order.getProductDetails() != null ? order.getProductDetails() : "");
-                row.createCell(9).setCellValue(order.getCreatedAt() != null ? order.getCreatedAt().format(DATE_FORMATTER) : "");
-                
-                // Apply data style to all cells in the row
-                for (int i = 0; i < headers.length; i++) {
-                    row.getCell(i).setCellStyle(dataStyle);
-                }
+                row.getCell(4).setCellStyle(dataStyle);
+                widths.track(4, order.getTotalAmount());
+                setCell(row, 5, order.getStatus().toString(), dataStyle, widths);
+                setCell(row, 6, order.getOrderDate().format(DATE_FORMATTER), dataStyle, widths);
+                setCell(row, 7, order.getDescription() != null ? order.getDescription() : "", dataStyle, widths);
+                setCell(row, 8, order.getProductDetails() != null ? order.getProductDetails() : "", dataStyle, widths);
+                setCell(row, 9, order.getCreatedAt() != null ? order.getCreatedAt().format(DATE_FORMATTER) : "", dataStyle, widths);
             }
             
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-                // Set minimum width
-                if (sheet.getColumnWidth(i) < 3000) {
-                    sheet.setColumnWidth(i, 3000);
-                }
-                // Set maximum width to prevent very wide columns
-                if (sheet.getColumnWidth(i) > 15000) {
-                    sheet.setColumnWidth(i, 15000);
-                }
+            // Column widths from the tracked maximums, within the width bounds
+            for (Sheet dataSheet : dataSheets) {
+                widths.applyTo(dataSheet);
             }
             
             // Create summary sheet
-            createSummarySheet(workbook, orders);
+            createSummarySheet(workbook, summary);
             
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            workbook.write(baos);
-            return baos.toByteArray();
+            workbook.write(outputStream);
+            outputStream.flush();
             
         } catch (Exception e) {
             throw new RuntimeException("Error exporting orders to Excel", e);
+        } finally {
+            // Remove the temp files backing the flushed rows
+            workbook.dispose();
         }
     }
     
-    private void createSummarySheet(Workbook workbook, List<Order> orders) {
-        Sheet summarySheet = workbook.createSheet("订单统计");
+    private Sheet createDataSheet(SXSSFWorkbook workbook, String name, CellStyle headerStyle,
+                                  ColumnWidthEstimator widths) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < EXCEL_HEADERS.length; i++) {
+            setCell(headerRow, i, EXCEL_HEADERS[i], headerStyle, widths);
+        }
+        return sheet;
+    }
+    
+    private void createSummarySheet(SXSSFWorkbook workbook, OrderSummaryAggregator summary) {
+        SXSSFSheet summarySheet = workbook.createSheet("订单统计");
         CellStyle headerStyle = createHeaderStyle(workbook);
         CellStyle dataStyle = createDataStyle(workbook);
-        
-        // Calculate statistics
-        long totalOrders = orders.size();
-        long pendingOrders = orders.stream().mapToLong(o -> o.getStatus() == Order.OrderStatus.PENDING ? 1 : 0).sum();
-        long processingOrders = orders.stream().mapToLong(o -> o.getStatus() == Order.OrderStatus.PROCESSING ? 1 : 0).sum();
-        long deliveredOrders = orders.stream().mapToLong(o -> o.getStatus() == Order.OrderStatus.DELIVERED ? 1 : 0).sum();
-        long cancelledOrders = orders.stream().mapToLong(o -> o.getStatus() == Order.OrderStatus.CANCELLED ? 1 : 0).sum();
-        double totalAmount = orders.stream().mapToDouble(o -> o.getTotalAmount().doubleValue()).sum();
+        ColumnWidthEstimator widths = new ColumnWidthEstimator(2, MIN_COLUMN_WIDTH, MAX_COLUMN_WIDTH);
         
         int rowNum = 0;
         
         // Title
         Row titleRow = summarySheet.createRow(rowNum++);
-        titleRow.createCell(0).setCellValue("订单统计报告");
-        titleRow.getCell(0).setCellStyle(headerStyle);
+        setCell(titleRow, 0, "订单统计报告", headerStyle, widths);
         
         rowNum++; // Empty row
         
         // Statistics
-        addSummaryRow(summarySheet, rowNum++, "总订单数", String.valueOf(totalOrders), headerStyle, dataStyle);
-        addSummaryRow(summarySheet, rowNum++, "待处理订单", String.valueOf(pendingOrders), headerStyle, dataStyle);
-        addSummaryRow(summarySheet, rowNum++, "处理中订单", String.valueOf(processingOrders), headerStyle, dataStyle);
-        addSummaryRow(summarySheet, rowNum++, "已送达订单", String.valueOf(deliveredOrders), headerStyle, dataStyle);
-        addSummaryRow(summarySheet, rowNum++, "已取消订单", String.valueOf(cancelledOrders), headerStyle, dataStyle);
-        addSummaryRow(summarySheet, rowNum++, "总金额", String.format("¥%.2f", totalAmount), headerStyle, dataStyle);
+        addSummaryRow(summarySheet, rowNum++, "总订单数", String.valueOf(summary.getTotalOrders()), headerStyle, dataStyle, widths);
+        addSummaryRow(summarySheet, rowNum++, "待处理订单", String.valueOf(summary.getCount(Order.OrderStatus.PENDING)), headerStyle, dataStyle, widths);
+        addSummaryRow(summarySheet, rowNum++, "已确认订单", String.valueOf(summary.getCount(Order.OrderStatus.CONFIRMED)), headerStyle, dataStyle, widths);
+        addSummaryRow(summarySheet, rowNum++, "处理中订单", String.valueOf(summary.getCount(Order.OrderStatus.PROCESSING)), headerStyle, dataStyle, widths);
+        addSummaryRow(summarySheet, rowNum++, "已发货订单", String.valueOf(summary.getCount(Order.OrderStatus.SHIPPED)), headerStyle, dataStyle, widths);
+        addSummaryRow(summarySheet, rowNum++, "已送达订单", String.valueOf(summary.getCount(Order.OrderStatus.DELIVERED)), headerStyle, dataStyle, widths);
+        addSummaryRow(summarySheet, rowNum++, "已取消订单", String.valueOf(summary.getCount(Order.OrderStatus.CANCELLED)), headerStyle, dataStyle, widths);
+        addSummaryRow(summarySheet, rowNum++, "总金额", formatAmount(summary.getTotalAmount()), headerStyle, dataStyle, widths);
+        addSummaryRow(summarySheet, rowNum++, "平均金额", formatAmount(summary.getAverageAmount()), headerStyle, dataStyle, widths);
+        addSummaryRow(summarySheet, rowNum++, "最小金额", formatAmount(summary.getMinAmount()), headerStyle, dataStyle, widths);
+        addSummaryRow(summarySheet, rowNum++, "最大金额", formatAmount(summary.getMaxAmount()), headerStyle, dataStyle, widths);
         
         rowNum++; // Empty row
         
         // Generation time
         Row timeRow = summarySheet.createRow(rowNum);
-        timeRow.createCell(0).setCellValue("生成时间");
-        timeRow.createCell(1).setCellValue(java.time.LocalDateTime.now().format(DATE_FORMATTER));
-        timeRow.getCell(0).setCellStyle(headerStyle);
-        timeRow.getCell(1).setCellStyle(dataStyle);
+        setCell(timeRow, 0, "生成时间", headerStyle, widths);
+        setCell(timeRow, 1, java.time.LocalDateTime.now().format(DATE_FORMATTER), dataStyle, widths);
         
-        // Auto-size columns
-        summarySheet.autoSizeColumn(0);
-        summarySheet.autoSizeColumn(1);
+        widths.applyTo(summarySheet);
+    }
+    
+    // Write orders as a JSON array one element at a time
+    public void exportOrdersToJson(Stream<Order> orders, OutputStream outputStream) {
+        exportMetrics.record("json", orders, outputStream, this::writeJson);
+    }
+    
+    private void writeJson(Stream<Order> orders, OutputStream outputStream) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .writeValuesAsArray(generator)) {
+                orders.forEach(order -> {
+                    try {
+                        writer.write(order);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error exporting orders to JSON", e);
+        }
+    }
+    
+    // Write orders as JSON lines: one object per line, each terminated by '\n'
+    public void exportOrdersToNdjson(Stream<Order> orders, OutputStream outputStream) {
+        exportMetrics.record("ndjson", orders, outputStream, this::writeNdjson);
+    }
+    
+    private void writeNdjson(Stream<Order> orders, OutputStream outputStream) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            orders.forEach(order -> {
+                try {
+                    writer.writeValue(generator, order);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error exporting orders to NDJSON", e);
+        }
+    }
+    
+    // Write orders as RFC 4180 CSV (UTF-8, CRLF line ends, header row). Column
+    // names match the bulk import, so an export can be imported again.
+    public void exportOrdersToCsv(Stream<Order> orders, OutputStream outputStream) {
+        exportOrdersToDelimited(orders, outputStream, DelimitedWriter.Dialect.CSV, false);
+    }
+    
+    // Fast path for machine consumers: CSV or TSV encoded by DelimitedWriter
+    // without POI or per-cell Strings, optionally gzip-compressed
+    public void exportOrdersToDelimited(Stream<Order> orders, OutputStream outputStream,
+                                        DelimitedWriter.Dialect dialect, boolean gzip) {
+        String format = dialect.name().toLowerCase(Locale.ROOT) + (gzip ? "-gzip" : "");
+        exportMetrics.record(format, orders, outputStream,
+            (rows, out) -> writeDelimited(rows, out, dialect, gzip));
+    }
+    
+    private void writeDelimited(Stream<Order> orders, OutputStream outputStream,
+                                DelimitedWriter.Dialect dialect, boolean gzip) {
+        // Closing the gzip stream releases its deflater; the caller's stream stays open
+        try (OutputStream out = gzip
+                ? new GZIPOutputStream(StreamUtils.nonClosing(outputStream), 64 * 1024)
+                : StreamUtils.nonClosing(outputStream)) {
+            DelimitedWriter writer = new DelimitedWriter(out, dialect);
+            for (String column : DELIMITED_COLUMNS) {
+                writer.field(column);
+            }
+            writer.endRecord();
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                Order order = iterator.next();
+                writer.field(order.getId())
+                      .field(order.getOrderNumber())
+                      .field(order.getCustomerName())
+                      .field(order.getCustomerEmail())
+                      .field(order.getCustomerPhone())
+                      .field(order.getTotalAmount())
+                      .field(order.getStatus() != null ? order.getStatus().name() : null)
+                      .field(order.getOrderDate())
+                      .field(order.getDescription())
+                      .field(order.getProductDetails())
+                      .field(order.getCreatedAt())
+                      .field(order.getUpdatedAt())
+                      .endRecord();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error exporting orders to " + dialect, e);
+        }
+    }
+    
+    private String formatAmount(BigDecimal amount) {
+        return "¥" + amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+    
+    private void setCell(Row row, int column, String value, CellStyle style, ColumnWidthEstimator widths) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        cell.setCellStyle(style);
+        widths.track(column, value);
     }
     
-    private void addSummaryRow(Sheet sheet, int rowNum, String label, String value, CellStyle headerStyle, CellStyle dataStyle) {
+    private void addSummaryRow(Sheet sheet, int rowNum, String label, String value, CellStyle headerStyle,
+                               CellStyle dataStyle, ColumnWidthEstimator widths) {
         Row row = sheet.createRow(rowNum);
-        row.createCell(0).setCellValue(label);
-        row.createCell(1).setCellValue(value);
-        row.getCell(0).setCellStyle(headerStyle);
-        row.getCell(1).setCellStyle(dataStyle);
+        setCell(row, 0, label, headerStyle, widths);
+        setCell(row, 1, value, dataStyle, widths);
     }
     
     private CellStyle createHeaderStyle(Workbook workbook) {
@@ -0,0 +1,151 @@
+package com.orderticket.service;
+
+import com.orderticket.config.WorkerThreads;
+import com.orderticket.entity.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Renders one PDF invoice per order on a bounded worker pool and streams them
+// into a ZIP archive in completion order. At most inFlightPerRequest invoices
+// are being rendered or waiting to be written per request: reading the next
+// order blocks until a finished PDF has been written, so memory stays bounded.
+// When the archive fails, its outstanding renders are cancelled.
+@Service
+public class InvoiceArchiveService {
+    
+    @Autowired
+    private InvoiceService invoiceService;
+    
+    @Autowired
+    private InvoiceCache invoiceCache;
+    
+    @Autowired
+    private ExportMetrics exportMetrics;
+    
+    // 0 means one render thread per available processor
+    @Value("${order.invoice.render.threads:0}")
+    private int renderThreads;
+    
+    @Value("${order.invoice.render.in-flight-per-request:0}")
+    private int inFlightPerRequest;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    private ExecutorService renderPool;
+    
+    @PostConstruct
+    void init() {
+        if (renderThreads <= 0) {
+            renderThreads = Runtime.getRuntime().availableProcessors();
+        }
+        if (inFlightPerRequest <= 0) {
+            inFlightPerRequest = renderThreads * 2;
+        }
+        renderPool = Executors.newFixedThreadPool(renderThreads, WorkerThreads.factory("invoice-render-", virtualThreads));
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+    
+    public void writeInvoiceZip(Stream<Order> orders, OutputStream outputStream) {
+        exportMetrics.record("invoice-zip", orders, outputStream, this::writeZip);
+    }
+    
+    private void writeZip(Stream<Order> orders, OutputStream outputStream) {
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        CompletionService<RenderedInvoice> completion = new ExecutorCompletionService<>(renderPool);
+        // Submitted renders whose PDF hasn't been written yet
+        Set<Future<RenderedInvoice>> pending = new HashSet<>();
+        try {
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                if (pending.size() == inFlightPerRequest) {
+                    // Backpressure: wait for a slot before reading the next order
+                    writeEntry(zip, pending, completion.take());
+                }
+                Order order = iterator.next();
+                pending.add(completion.submit(() -> new RenderedInvoice(entryName(order), render(order))));
+                
+                Future<RenderedInvoice> done;
+                while ((done = completion.poll()) != null) {
+                    writeEntry(zip, pending, done);
+                }
+            }
+            while (!pending.isEmpty()) {
+                writeEntry(zip, pending, completion.take());
+            }
+            zip.finish();
+            zip.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Invoice archive interrupted", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing invoice archive", e);
+        } finally {
+            // After a failed render or write, or a client that went away, the renders
+            // still queued or running for this archive would only waste the shared pool
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    // PDFs are already compressed, so entries are stored rather than deflated again
+    private void writeEntry(ZipOutputStream zip, Set<Future<RenderedInvoice>> pending,
+                            Future<RenderedInvoice> future) throws IOException, InterruptedException {
+        pending.remove(future);
+        RenderedInvoice invoice;
+        try {
+            invoice = future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error rendering invoice", e.getCause());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(invoice.pdf());
+        ZipEntry entry = new ZipEntry(invoice.name());
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(invoice.pdf().length);
+        entry.setCompressedSize(invoice.pdf().length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(invoice.pdf());
+        zip.closeEntry();
+    }
+    
+    // Reuses a cached rendering but doesn't cache new ones: archive invoices are
+    // streamed once and would only push the interactive entries out
+    private byte[] render(Order order) {
+        byte[] cached = invoiceCache.getIfPresent(order);
+        return cached != null ? cached : invoiceService.generatePdfInvoice(order);
+    }
+    
+    // Sanitizing can map different order numbers to the same name ("A/1", "A_1"),
+    // and a duplicate entry fails the archive halfway, so the id keeps names unique
+    private static String entryName(Order order) {
+        return "invoice_" + order.getOrderNumber().replaceAll("[^A-Za-z0-9._-]", "_") + "_" + order.getId() + ".pdf";
+    }
+    
+    private record RenderedInvoice(String name, byte[] pdf) {
+    }
+}
@@ -0,0 +1,254 @@
+package com.orderticket.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orderticket.entity.Order;
+import com.orderticket.event.OrderChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Two-tier cache of rendered PDF invoices. An invoice is addressed by a hash of
+// (order id, updatedAt, template version): any change to the order produces a new
+// address, so entries never need to be rewritten and the hash doubles as ETag.
+// The heap tier is an LRU bounded by bytes; the disk tier survives restarts and
+// is kept to its size and age limits by a scheduled sweep. Disk files live in a
+// directory per template version, and older versions are purged at startup.
+@Component
+public class InvoiceCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceCache.class);
+
+    @Value("${order.invoice.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.invoice.cache.dir:${java.io.tmpdir}/order-ticket/invoices}")
+    private String directory;
+
+    @Value("${order.invoice.cache.heap-max-bytes:33554432}")
+    private long heapMaxBytes;
+
+    @Value("${order.invoice.cache.disk-max-bytes:1073741824}")
+    private long diskMaxBytes;
+
+    @Value("${order.invoice.cache.disk-max-age:7d}")
+    private Duration diskMaxAge;
+
+    private Path cacheDir;
+    private Path versionDir;
+    private Cache<String, byte[]> heap;
+
+    @PostConstruct
+    void init() throws IOException {
+        heap = Caffeine.newBuilder()
+                .maximumWeight(heapMaxBytes)
+                .weigher((String key, byte[] pdf) -> pdf.length)
+                .recordStats()
+                .build();
+        cacheDir = Paths.get(directory);
+        versionDir = cacheDir.resolve("v" + InvoiceService.TEMPLATE_VERSION);
+        if (enabled) {
+            Files.createDirectories(versionDir);
+            purgeOtherVersions();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, heap, "invoices");
+    }
+
+    // Null when the order has no modification timestamp and can't be cached safely
+    public String etag(Order order) {
+        if (!enabled || order.getId() == null || order.getUpdatedAt() == null) {
+            return null;
+        }
+        return address(order.getId(), order.getUpdatedAt());
+    }
+
+    public byte[] getOrRender(Order order, Function<Order, byte[]> renderer) {
+        String etag = etag(order);
+        if (etag == null) {
+            return renderer.apply(order);
+        }
+        byte[] pdf = heap.getIfPresent(etag);
+        if (pdf != null) {
+            return pdf;
+        }
+        // Disk I/O and rendering stay out of a cache compute, which would hold a
+        // map bin lock and block unrelated keys. Concurrent misses for the same
+        // invoice may both render it; the results are identical.
+        Path file = file(order.getId(), etag);
+        pdf = read(file);
+        if (pdf == null) {
+            pdf = renderer.apply(order);
+            store(file, pdf);
+        }
+        heap.put(etag, pdf);
+        return pdf;
+    }
+
+    // Cached rendering without filling either tier, null on a miss. For bulk paths
+    // that stream each invoice once and shouldn't evict the interactive entries.
+    public byte[] getIfPresent(Order order) {
+        String etag = etag(order);
+        if (etag == null) {
+            return null;
+        }
+        byte[] pdf = heap.getIfPresent(etag);
+        return pdf != null ? pdf : read(file(order.getId(), etag));
+    }
+
+    // Old renderings of a changed or deleted order can never be requested again
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!enabled || event.before() == null) {
+            return;
+        }
+        OrderChangedEvent.Snapshot before = event.before();
+        if (before.updatedAt() == null) {
+            // Never cached, see etag
+            return;
+        }
+        String address = address(before.id(), before.updatedAt());
+        heap.invalidate(address);
+        try {
+            Files.deleteIfExists(file(before.id(), address));
+        } catch (IOException e) {
+            log.warn("Could not remove cached invoice of order {}", before.id(), e);
+        }
+    }
+
+    // Drop disk files older than the max age, then the least recently used ones
+    // until the tier fits its byte limit. Leftover temp files age out the same way.
+    @Scheduled(fixedDelayString = "${order.invoice.cache.sweep-interval-ms:600000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(versionDir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    files.add(new CachedFile(path, attributes.size(), attributes.lastModifiedTime()));
+                } catch (NoSuchFileException e) {
+                    // Renamed or removed since listing
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list invoice cache {}", versionDir, e);
+            return;
+        }
+        files.sort(Comparator.comparing(CachedFile::lastModified));
+
+        FileTime cutoff = FileTime.from(Instant.now().minus(diskMaxAge));
+        long totalBytes = files.stream().mapToLong(CachedFile::size).sum();
+        int removed = 0;
+        for (CachedFile file : files) {
+            if (totalBytes <= diskMaxBytes && file.lastModified().compareTo(cutoff) >= 0) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(file.path());
+                totalBytes -= file.size();
+                removed++;
+            } catch (IOException e) {
+                log.warn("Could not remove cached invoice {}", file.path(), e);
+            }
+        }
+        if (removed > 0) {
+            log.info("Invoice cache sweep removed {} files, {} bytes left", removed, totalBytes);
+        }
+    }
+
+    // Renderings of other template versions can never be requested again
+    private void purgeOtherVersions() throws IOException {
+        List<Path> stale;
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            stale = entries.filter(entry -> !entry.equals(versionDir)).toList();
+        }
+        for (Path entry : stale) {
+            try (Stream<Path> tree = Files.walk(entry)) {
+                for (Path path : tree.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        if (!stale.isEmpty()) {
+            log.info("Purged {} invoice cache entries of other template versions", stale.size());
+        }
+    }
+
+    // Null when the file is missing or unreadable
+    private byte[] read(Path file) {
+        try {
+            byte[] pdf = Files.readAllBytes(file);
+            // Touch so the sweep evicts the least recently read files first
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return pdf;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Could not read cached invoice {}", file, e);
+            return null;
+        }
+    }
+
+    private void store(Path file, byte[] pdf) {
+        try {
+            // Write to a temp file first so readers never see a partial PDF
+            Path temp = Files.createTempFile(versionDir, "invoice", ".tmp");
+            Files.write(temp, pdf);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write cached invoice {}", file, e);
+        }
+    }
+
+    private Path file(Long orderId, String etag) {
+        return versionDir.resolve(orderId + "-" + etag + ".pdf");
+    }
+
+    private static String address(Long orderId, LocalDateTime updatedAt) {
+        String key = orderId + "|" + updatedAt + "|" + InvoiceService.TEMPLATE_VERSION;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CachedFile(Path path, long size, FileTime lastModified) {
+    }
+}
@@ -8,75 +8,72 @@ import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
+import com.orderticket.dto.OrderSummaryRow;
 import com.orderticket.entity.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class InvoiceService {
     
+    // Bump whenever the invoice layout changes so cached renderings are not reused
+    public static final int TEMPLATE_VERSION = 4;
+    
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter SHORT_DATE_FORMATTER = DateTimeFormatter.ofPattern("MM-dd");
+    
+    // Summary table rows buffered before they are laid out and written
+    @Value("${order.invoice.batch.flush-rows:200}")
+    private int batchFlushRows = 200;
+    
+    @Autowired
+    private ExportMetrics exportMetrics;
+    
+    @Autowired
+    private InvoiceTemplate invoiceTemplate;
     
     public byte[] generatePdfInvoice(Order order) {
+        return exportMetrics.recordInvoiceRender(() -> renderPdfInvoice(order));
+    }
+    
+    private byte[] renderPdfInvoice(Order order) {
         try {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdfDoc = new PdfDocument(writer);
-            Document document = new Document(pdfDoc);
-            
-            // Title
-            document.add(new Paragraph("订单发票 / Order Invoice")
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setFontSize(20)
-                    .setBold());
-            
-            document.add(new Paragraph("\n"));
-            
-            // Order information table
-            Table infoTable = new Table(UnitValue.createPercentArray(new float[]{30, 70}));
-            infoTable.setWidth(UnitValue.createPercentValue(100));
-            
-            addTableRow(infoTable, "订单号 / Order Number:", order.getOrderNumber());
-            addTableRow(infoTable, "客户姓名 / Customer Name:", order.getCustomerName());
-            addTableRow(infoTable, "客户邮箱 / Email:", order.getCustomerEmail());
-            addTableRow(infoTable, "客户电话 / Phone:", order.getCustomerPhone());
-            addTableRow(infoTable, "订单状态 / Status:", order.getStatus().toString());
-            addTableRow(infoTable, "订单日期 / Order Date:", order.getOrderDate().format(DATE_FORMATTER));
-            addTableRow(infoTable, "总金额 / Total Amount:", "¥" + order.getTotalAmount().toString());
-            
-            document.add(infoTable);
-            document.add(new Paragraph("\n"));
+            PdfDocument pdfDoc = new PdfDocument(InvoiceTemplate.newWriter(baos));
+            
+            // Title, labels and footer come from the template; only the values are laid out here
+            Document document = invoiceTemplate.newInvoice(pdfDoc);
+            invoiceTemplate.fill(document, InvoiceTemplate.Field.ORDER_NUMBER, order.getOrderNumber());
+            invoiceTemplate.fill(document, InvoiceTemplate.Field.CUSTOMER_NAME, order.getCustomerName());
+            invoiceTemplate.fill(document, InvoiceTemplate.Field.CUSTOMER_EMAIL, order.getCustomerEmail());
+            invoiceTemplate.fill(document, InvoiceTemplate.Field.CUSTOMER_PHONE, order.getCustomerPhone());
+            invoiceTemplate.fill(document, InvoiceTemplate.Field.STATUS, order.getStatus().toString());
+            invoiceTemplate.fill(document, InvoiceTemplate.Field.ORDER_DATE, order.getOrderDate().format(DATE_FORMATTER));
+            invoiceTemplate.fill(document, InvoiceTemplate.Field.TOTAL_AMOUNT, "¥" + order.getTotalAmount().toString());
             
             // Product details
             if (order.getProductDetails() != null && !order.getProductDetails().isEmpty()) {
                 document.add(new Paragraph("产品详情 / Product Details:")
-                        .setBold()
-                        .setFontSize(14));
+                        .addStyle(InvoiceTemplate.SECTION_HEADING));
                 document.add(new Paragraph(order.getProductDetails()));
-                document.add(new Paragraph("\n"));
             }
             
             // Description
             if (order.getDescription() != null && !order.getDescription().isEmpty()) {
                 document.add(new Paragraph("订单描述 / Description:")
-                        .setBold()
-                        .setFontSize(14));
+                        .addStyle(InvoiceTemplate.SECTION_HEADING));
                 document.add(new Paragraph(order.getDescription()));
-                document.add(new Paragraph("\n"));
             }
             
-            // Footer
-            document.add(new Paragraph("感谢您的订购！/ Thank you for your order!")
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setItalic());
-            
-            document.add(new Paragraph("生成时间 / Generated at: " + 
-                    java.time.LocalDateTime.now().format(DATE_FORMATTER))
-                    .setTextAlignment(TextAlignment.RIGHT)
-                    .setFontSize(10));
+            invoiceTemplate.fillGeneratedAt(document, java.time.LocalDateTime.now().format(DATE_FORMATTER));
             
             document.close();
             return baos.toByteArray();
@@ -86,12 +83,22 @@ public class InvoiceService {
         }
     }
     
-    public byte[] generateBatchPdfInvoices(List<Order> orders) {
+    // Streaming batch rendering: the summary table is a large table whose rows are
+    // laid out and written to the output stream every batchFlushRows orders, so
+    // neither the table nor the PDF is ever held in memory as a whole. Only the
+    // summary columns are needed, so callers stream OrderSummaryRow projections.
+    // The order total is counted while streaming and written below the table.
+    public void writeBatchPdfInvoices(Stream<OrderSummaryRow> orders, OutputStream outputStream) {
+        exportMetrics.record("pdf-batch", orders, outputStream, this::renderBatchPdfInvoices);
+    }
+    
+    private void renderBatchPdfInvoices(Stream<OrderSummaryRow> orders, OutputStream outputStream) {
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
+            PdfWriter writer = InvoiceTemplate.newWriter(outputStream);
+            writer.setCloseStream(false);
             PdfDocument pdfDoc = new PdfDocument(writer);
             Document document = new Document(pdfDoc);
+            document.setFont(invoiceTemplate.createFont());
             
             // Title
             document.add(new Paragraph("批量订单发票 / Batch Order Invoices")
@@ -99,14 +106,10 @@ public class InvoiceService {
                     .setFontSize(20)
                     .setBold());
             
-            document.add(new Paragraph("共 " + orders.size() + " 个订单 / Total " + orders.size() + " orders")
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setFontSize(12));
-            
             document.add(new Paragraph("\n"));
             
-            // Create summary table
-            Table summaryTable = new Table(UnitValue.createPercentArray(new float[]{20, 25, 20, 15, 20}));
+            // Create summary table; large tables are added before their content
+            Table summaryTable = new Table(UnitValue.createPercentArray(new float[]{20, 25, 20, 15, 20}), true);
             summaryTable.setWidth(UnitValue.createPercentValue(100));
             
             // Header
@@ -116,17 +119,33 @@ public class InvoiceService {
             summaryTable.addHeaderCell(new Cell().add(new Paragraph("金额").setBold()));
             summaryTable.addHeaderCell(new Cell().add(new Paragraph("日期").setBold()));
             
-            // Data rows
-            for (Order order : orders) {
-                summaryTable.addCell(new Cell().add(new Paragraph(order.getOrderNumber())));
-                summaryTable.addCell(new Cell().add(new Paragraph(order.getCustomerName())));
-                summaryTable.addCell(new Cell().add(new Paragraph(order.getStatus().toString())));
-                summaryTable.addCell(new Cell().add(new Paragraph("¥" + order.getTotalAmount().toString())));
-                summaryTable.addCell(new Cell().add(new Paragraph(order.getOrderDate().format(DateTimeFormatter.ofPattern("MM-dd")))));
-            }
-            
             document.add(summaryTable);
             
+            // Data rows
+            long[] rowCount = {0};
+            orders.forEach(order -> {
+                summaryTable.addCell(new Cell().add(new Paragraph(order.orderNumber())));
+                summaryTable.addCell(new Cell().add(new Paragraph(order.customerName())));
+                summaryTable.addCell(new Cell().add(new Paragraph(order.status().toString())));
+                summaryTable.addCell(new Cell().add(new Paragraph("¥" + order.totalAmount().toString())));
+                summaryTable.addCell(new Cell().add(new Paragraph(order.orderDate().format(SHORT_DATE_FORMATTER))));
+                
+                if (++rowCount[0] % batchFlushRows == 0) {
+                    // Lay out the buffered rows, write finished pages and push them to the client
+                    summaryTable.flush();
+                    try {
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+            summaryTable.complete();
+            
+            document.add(new Paragraph("共 " + rowCount[0] + " 个订单 / Total " + rowCount[0] + " orders")
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setFontSize(12));
+            
             // Footer
             document.add(new Paragraph("\n"));
             document.add(new Paragraph("生成时间 / Generated at: " + 
@@ -135,15 +154,9 @@ public class InvoiceService {
                     .setFontSize(10));
             
             document.close();
-            return baos.toByteArray();
             
         } catch (Exception e) {
             throw new RuntimeException("Error generating batch PDF invoices", e);
         }
     }
-    
-    private void addTableRow(Table table, String label, String value) {
-        table.addCell(new Cell().add(new Paragraph(label).setBold()));
-        table.addCell(new Cell().add(new Paragraph(value != null ? value : "")));
-    }
 }
\ No newline at end of file
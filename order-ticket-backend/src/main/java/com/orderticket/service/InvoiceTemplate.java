@@ -0,0 +1,262 @@
+package com.orderticket.service;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.properties.Property;
+import com.itextpdf.layout.properties.TextAlignment;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Precomputed parts of the single-order invoice. The CJK font program is loaded
+// once per JVM, and the static page content (bilingual title, label column and
+// table grid, footer) is rendered once; its content stream is kept as bytes.
+// Each invoice wraps those bytes in a form XObject whose font resource is the
+// invoice's own font, so labels and values share one embedded subset, and only
+// lays out the variable fields on top. PdfFont and XObject instances belong to
+// one document, so those are created per document from the shared parts.
+@Component
+public class InvoiceTemplate {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceTemplate.class);
+
+    // Predefined CJK font from itext font-asian; viewers supply the glyphs, so
+    // nothing is embedded. Used when no font file is configured.
+    private static final String FALLBACK_FONT = "STSong-Light";
+    private static final String FALLBACK_ENCODING = "UniGB-UCS2-H";
+
+    // Page geometry shared by the template and the variable fields
+    private static final PageSize PAGE_SIZE = PageSize.A4;
+    private static final float MARGIN = 36;
+    private static final float CONTENT_WIDTH = PAGE_SIZE.getWidth() - 2 * MARGIN;
+    private static final float TITLE_BOTTOM = PAGE_SIZE.getHeight() - MARGIN - 32;
+    private static final float TABLE_TOP = TITLE_BOTTOM - 28;
+    static final float ROW_HEIGHT = 24;
+    private static final float LABEL_WIDTH = CONTENT_WIDTH * 0.3f;
+    private static final float CELL_PADDING = 4;
+    private static final float VALUE_FONT_SIZE = 11;
+    // Smallest size a long value shrinks to before it is cut with an ellipsis
+    private static final float MIN_VALUE_FONT_SIZE = 7;
+    private static final String ELLIPSIS = "...";
+    private static final float FOOTER_BOTTOM = 64;
+    private static final float GRID_LINE_WIDTH = 0.5f;
+
+    // Margins of the flowing body (product details, description) below the table
+    static final float BODY_TOP_MARGIN = PAGE_SIZE.getHeight() - TABLE_TOP + Field.values().length * ROW_HEIGHT + 18;
+    static final float BODY_BOTTOM_MARGIN = FOOTER_BOTTOM + 30;
+
+    static final Style SECTION_HEADING = new Style().setFontSize(14).setBold();
+
+    private static final String TITLE = "订单发票 / Order Invoice";
+    private static final String FOOTER = "感谢您的订购！/ Thank you for your order!";
+
+    // Rows of the order information table, top to bottom
+    public enum Field {
+        ORDER_NUMBER("订单号 / Order Number:"),
+        CUSTOMER_NAME("客户姓名 / Customer Name:"),
+        CUSTOMER_EMAIL("客户邮箱 / Email:"),
+        CUSTOMER_PHONE("客户电话 / Phone:"),
+        STATUS("订单状态 / Status:"),
+        ORDER_DATE("订单日期 / Order Date:"),
+        TOTAL_AMOUNT("总金额 / Total Amount:");
+
+        private final String label;
+
+        Field(String label) {
+            this.label = label;
+        }
+    }
+
+    @Value("${order.invoice.font.path:}")
+    private String fontPath;
+
+    private FontProgram fontProgram;
+    // Decoded content stream of the template page and the name it uses for the font
+    private byte[] templateContent;
+    private PdfName templateFontName;
+    // Every character the template shows, registered with each invoice's font subset
+    private String templateText;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (StringUtils.hasText(fontPath)) {
+            fontProgram = FontProgramFactory.createFont(fontPath, true);
+            log.info("Invoice font loaded from {}", fontPath);
+        }
+        StringBuilder text = new StringBuilder(TITLE).append(FOOTER);
+        for (Field field : Field.values()) {
+            text.append(field.label);
+        }
+        templateText = text.toString();
+
+        try (PdfDocument templateDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(renderTemplate())))) {
+            PdfPage page = templateDoc.getFirstPage();
+            PdfDictionary resources = page.getResources().getPdfObject();
+            PdfDictionary fonts = resources.getAsDictionary(PdfName.Font);
+            if (resources.size() != 1 || fonts == null || fonts.size() != 1) {
+                throw new IllegalStateException("Invoice template must only use the invoice font: " + resources);
+            }
+            templateFontName = fonts.keySet().iterator().next();
+            templateContent = page.getContentBytes();
+        }
+        log.debug("Invoice template rendered: {} content bytes", templateContent.length);
+    }
+
+    // Compressed object streams keep the many small objects of an invoice compact
+    public static PdfWriter newWriter(OutputStream out) {
+        return new PdfWriter(out, new WriterProperties().setFullCompressionMode(true));
+    }
+
+    // Font for one document: a subset of the configured font, or the predefined CJK font
+    public PdfFont createFont() {
+        try {
+            if (fontProgram != null) {
+                return PdfFontFactory.createFont(fontProgram, PdfEncodings.IDENTITY_H,
+                    PdfFontFactory.EmbeddingStrategy.FORCE_EMBEDDED);
+            }
+            return PdfFontFactory.createFont(FALLBACK_FONT, FALLBACK_ENCODING,
+                PdfFontFactory.EmbeddingStrategy.PREFER_NOT_EMBEDDED);
+        } catch (IOException e) {
+            throw new RuntimeException("Error creating invoice font", e);
+        }
+    }
+
+    // Start an invoice: stamps the template on page one and returns a document
+    // whose flowing content starts below the information table
+    public Document newInvoice(PdfDocument pdfDoc) {
+        PdfFont font = pdfDoc.addFont(createFont());
+        // The template's codes are already encoded for this font program; mark
+        // their glyphs as used so an embedded subset includes them
+        font.convertToBytes(templateText);
+
+        PdfFormXObject template = new PdfFormXObject(PAGE_SIZE);
+        template.getPdfObject().setData(templateContent);
+        PdfDictionary fonts = new PdfDictionary();
+        fonts.put(templateFontName, font.getPdfObject());
+        template.getResources().getPdfObject().put(PdfName.Font, fonts);
+
+        Document document = new Document(pdfDoc, PAGE_SIZE);
+        document.setFont(font);
+        document.setMargins(BODY_TOP_MARGIN, MARGIN, BODY_BOTTOM_MARGIN, MARGIN);
+        document.add(new Image(template).setFixedPosition(1, 0, 0));
+        return document;
+    }
+
+    // Write a value into its row of the information table. Rows have a fixed
+    // height, so a value too wide for one line is shrunk, and cut with an
+    // ellipsis if it still doesn't fit, rather than wrapping into the next row.
+    public void fill(Document document, Field field, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        float cellWidth = CONTENT_WIDTH - LABEL_WIDTH;
+        float textWidth = cellWidth - 2 * CELL_PADDING;
+        PdfFont font = document.getProperty(Property.FONT);
+        float fontSize = Math.max(MIN_VALUE_FONT_SIZE,
+                                  Math.min(VALUE_FONT_SIZE, textWidth / font.getWidth(value, 1)));
+        String text = ellipsize(font, value, fontSize, textWidth);
+        document.add(cellText(new Paragraph(text), field, MARGIN + LABEL_WIDTH, cellWidth, fontSize));
+    }
+
+    // Generation timestamp, bottom right of page one
+    public void fillGeneratedAt(Document document, String generatedAt) {
+        document.add(new Paragraph("生成时间 / Generated at: " + generatedAt)
+                .setFontSize(10)
+                .setMargin(0)
+                .setTextAlignment(TextAlignment.RIGHT)
+                .setFixedPosition(1, MARGIN, FOOTER_BOTTOM - 24, CONTENT_WIDTH));
+    }
+
+    static float rowBottom(Field field) {
+        return TABLE_TOP - (field.ordinal() + 1) * ROW_HEIGHT;
+    }
+
+    // Text of one table cell, vertically centred in its row
+    private static Paragraph cellText(Paragraph paragraph, Field field, float cellLeft, float cellWidth,
+                                      float fontSize) {
+        return paragraph
+                .setFontSize(fontSize)
+                .setMargin(0)
+                .setFixedPosition(1, cellLeft + CELL_PADDING, rowBottom(field) + (ROW_HEIGHT - fontSize) / 2,
+                                  cellWidth - 2 * CELL_PADDING);
+    }
+
+    // Longest prefix of value that fits the width with an ellipsis appended
+    private static String ellipsize(PdfFont font, String value, float fontSize, float width) {
+        if (font.getWidth(value, fontSize) <= width) {
+            return value;
+        }
+        float available = width - font.getWidth(ELLIPSIS, fontSize);
+        int end = value.length();
+        while (end > 0 && font.getWidth(value.substring(0, end), fontSize) > available) {
+            end = Character.isLowSurrogate(value.charAt(end - 1)) && end > 1 ? end - 2 : end - 1;
+        }
+        return value.substring(0, end) + ELLIPSIS;
+    }
+
+    private byte[] renderTemplate() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(newWriter(baos));
+        Document document = new Document(pdfDoc, PAGE_SIZE);
+        document.setFont(createFont());
+
+        // Title
+        document.add(new Paragraph(TITLE)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setFontSize(20)
+                .setBold()
+                .setMargin(0)
+                .setFixedPosition(1, MARGIN, TITLE_BOTTOM, CONTENT_WIDTH));
+
+        // Grid of the information table, drawn at the exact row positions fill() writes to.
+        // The title has created page one.
+        PdfCanvas canvas = new PdfCanvas(pdfDoc.getFirstPage());
+        canvas.setLineWidth(GRID_LINE_WIDTH);
+        for (Field field : Field.values()) {
+            float rowBottom = rowBottom(field);
+            canvas.rectangle(MARGIN, rowBottom, LABEL_WIDTH, ROW_HEIGHT);
+            canvas.rectangle(MARGIN + LABEL_WIDTH, rowBottom, CONTENT_WIDTH - LABEL_WIDTH, ROW_HEIGHT);
+        }
+        canvas.stroke();
+
+        // Label column
+        for (Field field : Field.values()) {
+            document.add(cellText(new Paragraph(field.label).setBold(), field, MARGIN, LABEL_WIDTH, VALUE_FONT_SIZE));
+        }
+
+        // Footer
+        document.add(new Paragraph(FOOTER)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setItalic()
+                .setMargin(0)
+                .setFixedPosition(1, MARGIN, FOOTER_BOTTOM, CONTENT_WIDTH));
+
+        document.close();
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,39 @@
+package com.orderticket.service;
+
+import com.orderticket.entity.Order;
+import com.orderticket.event.OrderChangedEvent;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Persists new orders one chunk per transaction. Ids come from the pooled
+// sequence without a round-trip per row, so with hibernate.jdbc.batch_size
+// the inserts are sent as JDBC batches. The persistence context is flushed
+// and cleared after each chunk to keep memory flat on large loads.
+@Component
+public class OrderBulkWriter {
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    public void writeChunk(List<Order> orders) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Order order : orders) {
+                entityManager.persist(order);
+                eventPublisher.publishEvent(OrderChangedEvent.created(order));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
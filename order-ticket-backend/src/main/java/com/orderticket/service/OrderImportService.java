@@ -0,0 +1,240 @@
+package com.orderticket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.orderticket.dto.ImportResult;
+import com.orderticket.entity.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Bulk import of orders from CSV (with a header row) or JSON lines. The upload
+// is parsed one record at a time and written through OrderBulkWriter in
+// chunks, so memory use doesn't depend on the upload size. Invalid rows are
+// skipped and reported; a chunk the database refuses is retried row by row
+// so only the offending rows are rejected.
+@Service
+public class OrderImportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    @Autowired
+    private OrderBulkWriter orderBulkWriter;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Rows per transaction
+    @Value("${order.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    public ImportResult importCsv(InputStream inputStream) throws IOException {
+        ImportRun run = new ImportRun();
+        CsvRecordReader reader = new CsvRecordReader(openReader(inputStream));
+        String[] header = reader.next();
+        if (header == null) {
+            return run.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(normalize(header[i]), i);
+        }
+        
+        String[] record;
+        while ((record = reader.next()) != null) {
+            long line = reader.getRecordLine();
+            try {
+                run.accept(line, toOrder(record, columns));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                run.reject(line, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+    
+    public ImportResult importNdjson(InputStream inputStream) throws IOException {
+        ImportRun run = new ImportRun();
+        ObjectReader orderReader = objectMapper.readerFor(Order.class);
+        BufferedReader reader = openReader(inputStream);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Order order = orderReader.readValue(line);
+                if (order.getOrderDate() == null) {
+                    order.setOrderDate(LocalDateTime.now());
+                }
+                validate(order);
+                run.accept(lineNumber, order);
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+    
+    private BufferedReader openReader(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        // Skip a UTF-8 byte order mark, as written by Excel
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        return reader;
+    }
+    
+    private Order toOrder(String[] record, Map<String, Integer> columns) {
+        Order order = new Order();
+        order.setOrderNumber(field(record, columns, "ordernumber"));
+        order.setCustomerName(field(record, columns, "customername"));
+        order.setCustomerEmail(field(record, columns, "customeremail"));
+        order.setCustomerPhone(field(record, columns, "customerphone"));
+        order.setDescription(field(record, columns, "description"));
+        order.setProductDetails(field(record, columns, "productdetails"));
+        
+        String amount = field(record, columns, "totalamount");
+        if (amount != null) {
+            try {
+                order.setTotalAmount(new BigDecimal(amount));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid totalAmount: " + amount);
+            }
+        }
+        String status = field(record, columns, "status");
+        if (status != null) {
+            order.setStatus(Order.OrderStatus.valueOf(status.toUpperCase(Locale.ROOT)));
+        }
+        String orderDate = field(record, columns, "orderdate");
+        order.setOrderDate(orderDate != null ? parseDateTime(orderDate) : LocalDateTime.now());
+        
+        validate(order);
+        return order;
+    }
+    
+    private void validate(Order order) {
+        if (!StringUtils.hasText(order.getOrderNumber())) {
+            throw new IllegalArgumentException("orderNumber is required");
+        }
+        if (!StringUtils.hasText(order.getCustomerName())) {
+            throw new IllegalArgumentException("customerName is required");
+        }
+        if (order.getTotalAmount() == null) {
+            throw new IllegalArgumentException("totalAmount is required");
+        }
+        if (order.getStatus() == null) {
+            throw new IllegalArgumentException("status is required");
+        }
+        // Imports always create new orders
+        order.setId(null);
+    }
+    
+    // Null for missing columns and empty values
+    private static String field(String[] record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.length || record[index].isEmpty()) {
+            return null;
+        }
+        return record[index].trim();
+    }
+    
+    // Accepts ISO timestamps and the "yyyy-MM-dd HH:mm:ss" format of our exports
+    private static LocalDateTime parseDateTime(String value) {
+        return value.indexOf('T') > 0 ? LocalDateTime.parse(value) : LocalDateTime.parse(value, DATE_FORMATTER);
+    }
+    
+    // "order_number", "Order Number" and "orderNumber" all name the same column
+    private static String normalize(String header) {
+        return header.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+    
+    private class ImportRun {
+        private final long startedAt = System.nanoTime();
+        private final List<Order> chunk = new ArrayList<>(chunkSize);
+        private final List<Long> chunkLines = new ArrayList<>(chunkSize);
+        private final List<String> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+        
+        void accept(long line, Order order) {
+            chunk.add(order);
+            chunkLines.add(line);
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+        }
+        
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + line + ": " + message);
+            }
+        }
+        
+        ImportResult finish() {
+            flush();
+            long elapsed = System.nanoTime() - startedAt;
+            long rowsPerSecond = elapsed > 0 ? imported * 1_000_000_000L / elapsed : imported;
+            log.info("Imported {} orders ({} rejected) at {} rows/s", imported, rejected, rowsPerSecond);
+            return new ImportResult(imported, rejected, errors, elapsed / 1_000_000, rowsPerSecond);
+        }
+        
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                orderBulkWriter.writeChunk(chunk);
+                imported += chunk.size();
+            } catch (RuntimeException e) {
+                // Find the offending rows; the rest of the chunk still goes in
+                for (int i = 0; i < chunk.size(); i++) {
+                    Order order = chunk.get(i);
+                    order.setId(null);
+                    try {
+                        orderBulkWriter.writeChunk(List.of(order));
+                        imported++;
+                    } catch (RuntimeException rowError) {
+                        reject(chunkLines.get(i), rootMessage(rowError));
+                    }
+                }
+            }
+            chunk.clear();
+            chunkLines.clear();
+        }
+    }
+    
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -0,0 +1,116 @@
+package com.orderticket.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.orderticket.entity.Order;
+import com.orderticket.event.OrderChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Bounded read-through cache of orders by id and by order number. Entries are
+// detached entities shared between callers and must be treated as read-only.
+// Writes through OrderService invalidate both keys after commit; the TTL bounds
+// staleness for anything that changes the table behind the service's back.
+@Component
+public class OrderLookupCache implements MeterBinder {
+
+    @Value("${order.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${order.cache.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    private Cache<Long, Order> byId;
+    private Cache<String, Order> byNumber;
+
+    @PostConstruct
+    void init() {
+        byId = newCache();
+        byNumber = newCache();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "orders.byId");
+        CaffeineCacheMetrics.monitor(registry, byNumber, "orders.byNumber");
+    }
+
+    public Optional<Order> findById(Long id, Function<Long, Optional<Order>> loader) {
+        if (!enabled || id == null) {
+            return loader.apply(id);
+        }
+        Order order = byId.get(id, key -> {
+            Order loaded = loader.apply(key).orElse(null);
+            if (loaded != null) {
+                byNumber.put(loaded.getOrderNumber(), loaded);
+            }
+            return loaded;
+        });
+        return Optional.ofNullable(order);
+    }
+
+    public Optional<Order> findByNumber(String orderNumber, Function<String, Optional<Order>> loader) {
+        if (!enabled || orderNumber == null) {
+            return loader.apply(orderNumber);
+        }
+        Order order = byNumber.get(orderNumber, key -> {
+            Order loaded = loader.apply(key).orElse(null);
+            if (loaded != null) {
+                byId.put(loaded.getId(), loaded);
+            }
+            return loaded;
+        });
+        return Optional.ofNullable(order);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        byId.invalidate(event.orderId());
+        if (event.before() != null && event.before().orderNumber() != null) {
+            byNumber.invalidate(event.before().orderNumber());
+        }
+        if (event.after() != null && event.after().orderNumber() != null) {
+            byNumber.invalidate(event.after().orderNumber());
+        }
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(enabled, byId.estimatedSize(), byNumber.estimatedSize(),
+                                   byId.stats(), byNumber.stats());
+    }
+
+    private <K> Cache<K, Order> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public record CacheStatistics(boolean enabled, long idEntries, long numberEntries,
+                                  long idHits, long idMisses, double idHitRate,
+                                  long numberHits, long numberMisses, double numberHitRate,
+                                  long evictions) {
+
+        CacheStatistics(boolean enabled, long idEntries, long numberEntries, CacheStats idStats, CacheStats numberStats) {
+            this(enabled, idEntries, numberEntries,
+                 idStats.hitCount(), idStats.missCount(), idStats.hitRate(),
+                 numberStats.hitCount(), numberStats.missCount(), numberStats.hitRate(),
+                 idStats.evictionCount() + numberStats.evictionCount());
+        }
+    }
+}
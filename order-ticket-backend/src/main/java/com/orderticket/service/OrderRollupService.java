@@ -0,0 +1,237 @@
+package com.orderticket.service;
+
+import com.orderticket.dto.DailyOrderStats;
+import com.orderticket.entity.Order;
+import com.orderticket.entity.OrderDailyStats;
+import com.orderticket.event.OrderChangedEvent;
+import com.orderticket.repository.OrderDailyStatsRepository;
+import com.orderticket.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+// Maintains order_daily_stats, the per day and status rollup behind the
+// reporting endpoint. Order change events are summed per transaction and
+// applied as one increment per touched row just before the order write
+// commits, so the rollup commits or rolls back together with the orders and a
+// bulk import chunk costs a handful of updates. Rows are touched in key order
+// to keep concurrent writers from deadlocking. Writes that bypass the events
+// (seed data, SQL fixes) are corrected by a full reconcile at startup and a
+// scheduled one over recent days, which locks the rows it rewrites.
+@Service
+public class OrderRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRollupService.class);
+
+    private static final Comparator<DayStatus> KEY_ORDER =
+        Comparator.comparing(DayStatus::date).thenComparing(DayStatus::status);
+
+    @Autowired
+    private OrderDailyStatsRepository dailyStatsRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${order.rollup.reconcile-days:35}")
+    private int reconcileDays;
+
+    // Rollup rows of [startDate, endDate] with orders, optionally for one status
+    public List<DailyOrderStats> getDailyStats(LocalDate startDate, LocalDate endDate, Order.OrderStatus status) {
+        return status != null
+            ? dailyStatsRepository.findDailyByStatus(startDate, endDate, status)
+            : dailyStatsRepository.findDaily(startDate, endDate);
+    }
+
+    // Runs in the publishing transaction; only buffers, the rows are written in beforeCommit
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<DayStatus, Delta> deltas = new TreeMap<>(KEY_ORDER);
+            collect(deltas, event);
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> apply(deltas));
+            return;
+        }
+        collect(currentDeltas(), event);
+    }
+
+    // Startup: the seed data is inserted without events
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileAll() {
+        reconcile("all days", orderRepository::aggregateByDayAndStatus,
+                  dailyStatsRepository::findAll, dailyStatsRepository::lockAll);
+    }
+
+    // Recent days, today included; older orders rarely change
+    @Scheduled(fixedDelayString = "${order.rollup.reconcile-interval-ms:3600000}",
+               initialDelayString = "${order.rollup.reconcile-interval-ms:3600000}")
+    public void reconcileRecent() {
+        LocalDate today = LocalDate.now();
+        reconcile(today.minusDays(reconcileDays), today.plusDays(1));
+    }
+
+    // Recompute the rows of [from, to) from the orders table. Returns the number of rows corrected.
+    public int reconcile(LocalDate from, LocalDate to) {
+        return reconcile("[" + from + ", " + to + ")",
+                         () -> orderRepository.aggregateByDayAndStatus(from.atStartOfDay(), to.atStartOfDay()),
+                         () -> dailyStatsRepository.findRange(from, to),
+                         () -> dailyStatsRepository.lockRange(from, to));
+    }
+
+    // The rows are write-locked before the orders are aggregated, so increments
+    // of transactions still in flight wait and land on top of the corrected
+    // totals, and increments that committed are already in the aggregate. Rows
+    // missing for a day/status with orders are created (and committed) up front
+    // so the lock covers them; a row that only appears in between is left to the
+    // next run. Stale rows are zeroed rather than deleted so a concurrent
+    // increment never loses the row it just created.
+    private int reconcile(String range, Supplier<List<OrderRepository.DayStatusTotals>> aggregate,
+                          Supplier<List<OrderDailyStats>> existing, Supplier<List<OrderDailyStats>> locked) {
+        long started = System.currentTimeMillis();
+        Set<DayStatus> present = new HashSet<>();
+        for (OrderDailyStats stats : existing.get()) {
+            present.add(new DayStatus(stats.getStatDate(), stats.getStatus()));
+        }
+        for (OrderRepository.DayStatusTotals row : aggregate.get()) {
+            DayStatus key = new DayStatus(row.getDay(), row.getStatus());
+            if (!present.contains(key)) {
+                createRow(key);
+            }
+        }
+
+        Integer corrected = new TransactionTemplate(transactionManager).execute(status -> {
+            List<OrderDailyStats> rows = locked.get();
+            Map<DayStatus, OrderRepository.DayStatusTotals> actual = new HashMap<>();
+            for (OrderRepository.DayStatusTotals row : aggregate.get()) {
+                actual.put(new DayStatus(row.getDay(), row.getStatus()), row);
+            }
+
+            int changes = 0;
+            for (OrderDailyStats stats : rows) {
+                OrderRepository.DayStatusTotals row = actual.remove(new DayStatus(stats.getStatDate(), stats.getStatus()));
+                long count = row != null ? row.getOrderCount() : 0;
+                BigDecimal amount = row != null ? orZero(row.getTotalAmount()) : BigDecimal.ZERO;
+                if (stats.getOrderCount() != count || stats.getTotalAmount().compareTo(amount) != 0) {
+                    stats.setOrderCount(count);
+                    stats.setTotalAmount(amount);
+                    changes++;
+                }
+            }
+            if (!actual.isEmpty()) {
+                log.debug("Daily rollup rows missing for orders written during reconcile, left to the next run: {}",
+                          actual.keySet());
+            }
+            return changes;
+        });
+        log.info("Daily rollup reconciled for {}: {} rows corrected in {} ms",
+                 range, corrected, System.currentTimeMillis() - started);
+        return corrected;
+    }
+
+    // Deltas of the current transaction, registering the commit hook on first use
+    @SuppressWarnings("unchecked")
+    private Map<DayStatus, Delta> currentDeltas() {
+        Map<DayStatus, Delta> deltas = (Map<DayStatus, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (deltas != null) {
+            return deltas;
+        }
+        Map<DayStatus, Delta> created = new TreeMap<>(KEY_ORDER);
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                apply(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OrderRollupService.this);
+            }
+        });
+        return created;
+    }
+
+    private void collect(Map<DayStatus, Delta> deltas, OrderChangedEvent event) {
+        if (event.before() != null) {
+            collect(deltas, event.before(), -1);
+        }
+        if (event.after() != null) {
+            collect(deltas, event.after(), 1);
+        }
+    }
+
+    private void collect(Map<DayStatus, Delta> deltas, OrderChangedEvent.Snapshot order, int sign) {
+        if (order.orderDate() == null || order.status() == null) {
+            return;
+        }
+        Delta delta = deltas.computeIfAbsent(new DayStatus(order.orderDate().toLocalDate(), order.status()),
+                                             key -> new Delta());
+        delta.count += sign;
+        BigDecimal amount = orZero(order.totalAmount());
+        delta.amount = sign > 0 ? delta.amount.add(amount) : delta.amount.subtract(amount);
+    }
+
+    // An update that changes neither status, date nor amount nets out to nothing
+    private void apply(Map<DayStatus, Delta> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta.count == 0 && delta.amount.signum() == 0) {
+                return;
+            }
+            if (dailyStatsRepository.addToDay(key.date(), key.status(), delta.count, delta.amount) == 0) {
+                createRow(key);
+                if (dailyStatsRepository.addToDay(key.date(), key.status(), delta.count, delta.amount) == 0) {
+                    throw new IllegalStateException("Daily rollup row missing for " + key);
+                }
+            }
+        });
+    }
+
+    // Zero row in its own transaction, so losing the insert race to another
+    // writer doesn't roll back the order write
+    private void createRow(DayStatus key) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            requiresNew.executeWithoutResult(status ->
+                dailyStatsRepository.saveAndFlush(new OrderDailyStats(key.date(), key.status(), 0, BigDecimal.ZERO)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Daily rollup row for {} created concurrently", key);
+        }
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private record DayStatus(LocalDate date, Order.OrderStatus status) {
+    }
+
+    private static final class Delta {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+    }
+}
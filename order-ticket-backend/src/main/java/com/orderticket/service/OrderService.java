@@ -1,125 +1,316 @@
 package com.orderticket.service;
 
+import com.orderticket.dto.CursorSlice;
+import com.orderticket.dto.OrderGridRow;
+import com.orderticket.dto.OrderPreviewRow;
+import com.orderticket.dto.OrderSummaryRow;
 import com.orderticket.entity.Order;
+import com.orderticket.event.OrderChangedEvent;
 import com.orderticket.repository.OrderRepository;
+import com.orderticket.repository.OrderSpecifications;
+import com.orderticket.search.OrderSearchIndex;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class OrderService {
     
+    // Newest orders first; id breaks ties so keyset cursors are unambiguous
+    private static final Sort ORDER_DATE_DESC = Sort.by(Sort.Order.desc("orderDate"), Sort.Order.desc("id"));
+    private static final Sort CREATED_AT_DESC = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    
     @Autowired
     private OrderRepository orderRepository;
     
-    // Find all orders with pagination
-    public Page<Order> findAllOrders(Pageable pageable) {
-        return orderRepository.findAll(pageable);
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private OrderStatisticsCache statisticsCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private OrderSearchIndex searchIndex;
+    
+    @Autowired
+    private OrderLookupCache lookupCache;
+    
+    // Rows read from the export cursor before the persistence context is cleared
+    @Value("${order.export.stream.chunk-size:500}")
+    private int exportChunkSize;
+    
+    // Find all orders with pagination (grid columns only)
+    public Page<OrderGridRow> findAllOrders(Pageable pageable) {
+        return orderRepository.findProjected(null, OrderGridRow.class, pageable);
     }
     
-    // Find order by ID
+    // Find order by ID (read-through cache, the result is shared and read-only).
+    // No transaction here: a hit never touches the pool, a miss runs in the repository's own.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<Order> findOrderById(Long id) {
-        return orderRepository.findById(id);
+        return lookupCache.findById(id, orderRepository::findById);
     }
     
-    // Find order by order number
+    // Find order by order number (read-through cache, the result is shared and read-only)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<Order> findOrderByNumber(String orderNumber) {
-        return orderRepository.findByOrderNumber(orderNumber);
+        return lookupCache.findByNumber(orderNumber, orderRepository::findByOrderNumber);
+    }
+    
+    // Hit/miss figures of the order lookup cache
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderLookupCache.CacheStatistics getLookupCacheStatistics() {
+        return lookupCache.getStatistics();
+    }
+    
+    // Search orders with multiple filters (grid columns only)
+    public Page<OrderGridRow> searchOrders(String orderNumber, String customerName, 
+                                          Order.OrderStatus status, LocalDateTime startDate,
+                                          LocalDateTime endDate, Pageable pageable) {
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), ORDER_DATE_DESC);
+        return orderRepository.findProjected(
+            filters(orderNumber, customerName, status, startDate, endDate),
+            OrderGridRow.class, sortedPageable);
+    }
+    
+    // Search orders with keyset pagination, continuing after the given cursor token
+    @Transactional(readOnly = true)
+    public CursorSlice<OrderGridRow> searchOrdersAfter(String orderNumber, String customerName,
+                                                       Order.OrderStatus status, LocalDateTime startDate,
+                                                       LocalDateTime endDate, String cursor, int size,
+                                                       CountMode countMode) {
+        Specification<Order> filters = filters(orderNumber, customerName, status, startDate, endDate);
+        OrderCursor position = OrderCursor.decode(cursor);
+        Specification<Order> seek = position != null
+            ? filters.and(OrderSpecifications.before("orderDate", position.timestamp(), position.id()))
+            : filters;
+        Slice<OrderGridRow> slice = orderRepository.findProjectedSlice(seek, OrderGridRow.class, ORDER_DATE_DESC, size);
+        
+        Long total = null;
+        boolean totalExact = false;
+        if (countMode == CountMode.EXACT) {
+            total = orderRepository.count(filters);
+            totalExact = true;
+        } else if (countMode == CountMode.ESTIMATE) {
+            total = estimateOrderCount(orderNumber, customerName, status, startDate, endDate);
+        }
+        return toCursorSlice(slice, OrderGridRow::orderDate, total, totalExact);
+    }
+    
+    // Get recent orders with keyset pagination on creation time
+    @Transactional(readOnly = true)
+    public CursorSlice<OrderGridRow> getRecentOrdersAfter(String cursor, int size) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        Specification<Order> seek = position != null
+            ? OrderSpecifications.before("createdAt", position.timestamp(), position.id())
+            : null;
+        Slice<OrderGridRow> slice = orderRepository.findProjectedSlice(seek, OrderGridRow.class, CREATED_AT_DESC, size);
+        return toCursorSlice(slice, OrderGridRow::createdAt, null, false);
     }
     
-    // Search orders with multiple filters
-    public Page<Order> searchOrders(String orderNumber, String customerName, 
+    // Cheap total from the statistics cache. Only available when the filter is
+    // at most a status; otherwise null so callers don't pay for a count.
+    public Long estimateOrderCount(String orderNumber, String customerName,
                                    Order.OrderStatus status, LocalDateTime startDate,
-                                   LocalDateTime endDate, Pageable pageable) {
-        return orderRepository.findOrdersWithFilters(
-            orderNumber, customerName, status, startDate, endDate, pageable);
+                                   LocalDateTime endDate) {
+        if (StringUtils.hasText(orderNumber) || StringUtils.hasText(customerName)
+                || startDate != null || endDate != null) {
+            return null;
+        }
+        OrderStatisticsCache.Totals totals = statisticsCache.getTotals();
+        return status != null ? totals.count(status) : totals.totalOrders();
     }
     
-    // Get orders for export (without pagination)
-    public List<Order> getOrdersForExport(String orderNumber, String customerName,
+    // Search filters, narrowed to the search index candidates when the index can
+    // answer the text filters. The LIKE predicates stay to drop false positives.
+    private Specification<Order> filters(String orderNumber, String customerName,
                                          Order.OrderStatus status, LocalDateTime startDate,
                                          LocalDateTime endDate) {
-        return orderRepository.findOrdersForExport(
-            orderNumber, customerName, status, startDate, endDate);
+        Specification<Order> filters =
+            OrderSpecifications.withFilters(orderNumber, customerName, status, startDate, endDate);
+        long[] candidates = searchIndex.findCandidates(orderNumber, customerName);
+        return candidates != null ? filters.and(OrderSpecifications.idIn(candidates)) : filters;
     }
     
-    // Find orders by customer name
-    public Page<Order> findOrdersByCustomerName(String customerName, Pageable pageable) {
-        return orderRepository.findByCustomerNameContainingIgnoreCase(customerName, pageable);
+    private CursorSlice<OrderGridRow> toCursorSlice(Slice<OrderGridRow> slice,
+                                                    Function<OrderGridRow, LocalDateTime> sortKey,
+                                                    Long total, boolean totalExact) {
+        List<OrderGridRow> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            OrderGridRow last = content.get(content.size() - 1);
+            nextCursor = new OrderCursor(sortKey.apply(last), last.id()).encode();
+        }
+        return new CursorSlice<>(content, slice.getSize(), slice.hasNext(), nextCursor, total, totalExact);
     }
     
-    // Find orders by status
-    public Page<Order> findOrdersByStatus(Order.OrderStatus status, Pageable pageable) {
-        return orderRepository.findByStatus(status, pageable);
+    // Stream orders for export inside a read-only transaction. The persistence
+    // context is cleared after every chunk so managed entities don't pile up.
+    @Transactional(readOnly = true)
+    public <R> R streamOrdersForExport(String orderNumber, String customerName,
+                                       Order.OrderStatus status, LocalDateTime startDate,
+                                       LocalDateTime endDate, Function<Stream<Order>, R> consumer) {
+        try (Stream<Order> orders = orderRepository.streamAll(
+                filters(orderNumber, customerName, status, startDate, endDate),
+                ORDER_DATE_DESC)) {
+            long[] rowsRead = {0};
+            return consumer.apply(orders.peek(order -> {
+                if (++rowsRead[0] % exportChunkSize == 0) {
+                    entityManager.clear();
+                }
+            }));
+        }
+    }
+    
+    // Stream only the batch summary columns; projections aren't managed, so
+    // nothing accumulates in the persistence context
+    @Transactional(readOnly = true)
+    public <R> R streamOrderSummaries(String orderNumber, String customerName,
+                                      Order.OrderStatus status, LocalDateTime startDate,
+                                      LocalDateTime endDate, Function<Stream<OrderSummaryRow>, R> consumer) {
+        try (Stream<OrderSummaryRow> rows = orderRepository.streamProjected(
+                filters(orderNumber, customerName, status, startDate, endDate),
+                OrderSummaryRow.class, ORDER_DATE_DESC)) {
+            return consumer.apply(rows);
+        }
+    }
+    
+    // First rows of an export, for the preview
+    @Transactional(readOnly = true)
+    public List<OrderPreviewRow> getExportPreview(String orderNumber, String customerName,
+                                                  Order.OrderStatus status, LocalDateTime startDate,
+                                                  LocalDateTime endDate, int limit) {
+        return orderRepository.findProjectedSlice(
+            filters(orderNumber, customerName, status, startDate, endDate),
+            OrderPreviewRow.class, ORDER_DATE_DESC, limit).getContent();
+    }
+    
+    // Count orders matching the export filters
+    @Transactional(readOnly = true)
+    public long countOrdersForExport(String orderNumber, String customerName,
+                                     Order.OrderStatus status, LocalDateTime startDate,
+                                     LocalDateTime endDate) {
+        return orderRepository.count(
+            filters(orderNumber, customerName, status, startDate, endDate));
+    }
+    
+    // Count orders matching the export filters, stopping at limit
+    @Transactional(readOnly = true)
+    public long countOrdersForExportUpTo(String orderNumber, String customerName,
+                                         Order.OrderStatus status, LocalDateTime startDate,
+                                         LocalDateTime endDate, int limit) {
+        return orderRepository.countUpTo(
+            filters(orderNumber, customerName, status, startDate, endDate), limit);
     }
     
-    // Find orders within date range
-    public Page<Order> findOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate, 
-                                           Pageable pageable) {
-        return orderRepository.findByOrderDateBetween(startDate, endDate, pageable);
+    // Find orders by customer name
+    public Page<OrderGridRow> findOrdersByCustomerName(String customerName, Pageable pageable) {
+        return orderRepository.findProjected(filters(null, customerName, null, null, null),
+                                             OrderGridRow.class, pageable);
+    }
+    
+    // Find orders by status
+    public Page<OrderGridRow> findOrdersByStatus(Order.OrderStatus status, Pageable pageable) {
+        return orderRepository.findProjected(filters(null, null, status, null, null),
+                                             OrderGridRow.class, pageable);
     }
     
     // Get recent orders
-    public Page<Order> getRecentOrders(Pageable pageable) {
-        return orderRepository.findRecentOrders(pageable);
+    public Page<OrderGridRow> getRecentOrders(Pageable pageable) {
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), CREATED_AT_DESC);
+        return orderRepository.findProjected(null, OrderGridRow.class, sortedPageable);
     }
     
     // Create new order
     public Order createOrder(Order order) {
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.created(savedOrder));
+        return savedOrder;
     }
     
     // Update existing order
     public Order updateOrder(Order order) {
-        return orderRepository.save(order);
+        OrderChangedEvent.Snapshot before = order.getId() != null
+            ? orderRepository.findById(order.getId()).map(OrderChangedEvent.Snapshot::of).orElse(null)
+            : null;
+        // Flush so the @PreUpdate timestamp is part of the published snapshot
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        eventPublisher.publishEvent(OrderChangedEvent.updated(before, savedOrder));
+        return savedOrder;
     }
     
     // Delete order
     public void deleteOrder(Long id) {
+        Optional<Order> existingOrder = orderRepository.findById(id);
         orderRepository.deleteById(id);
+        existingOrder.ifPresent(order -> eventPublisher.publishEvent(OrderChangedEvent.deleted(order)));
     }
     
-    // Get order statistics
+    // Get order statistics from the in-memory counters; no transaction, so no pooled connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderStatistics getOrderStatistics() {
-        long totalOrders = orderRepository.count();
-        long pendingOrders = orderRepository.countByStatus(Order.OrderStatus.PENDING);
-        long processingOrders = orderRepository.countByStatus(Order.OrderStatus.PROCESSING);
-        long deliveredOrders = orderRepository.countByStatus(Order.OrderStatus.DELIVERED);
-        long cancelledOrders = orderRepository.countByStatus(Order.OrderStatus.CANCELLED);
-        
-        return new OrderStatistics(totalOrders, pendingOrders, processingOrders, 
-                                 deliveredOrders, cancelledOrders);
+        return statisticsCache.getStatistics();
+    }
+    
+    // How keyset listings report the total number of matching orders
+    public enum CountMode {
+        NONE, EXACT, ESTIMATE
     }
     
     // Inner class for order statistics
     public static class OrderStatistics {
         private long totalOrders;
         private long pendingOrders;
+        private long confirmedOrders;
         private long processingOrders;
+        private long shippedOrders;
         private long deliveredOrders;
         private long cancelledOrders;
+        private BigDecimal totalAmount;
         
-        public OrderStatistics(long totalOrders, long pendingOrders, long processingOrders,
-                             long deliveredOrders, long cancelledOrders) {
+        public OrderStatistics(long totalOrders, long pendingOrders, long confirmedOrders,
+                             long processingOrders, long shippedOrders, long deliveredOrders,
+                             long cancelledOrders, BigDecimal totalAmount) {
             this.totalOrders = totalOrders;
             this.pendingOrders = pendingOrders;
+            this.confirmedOrders = confirmedOrders;
             this.processingOrders = processingOrders;
+            this.shippedOrders = shippedOrders;
             this.deliveredOrders = deliveredOrders;
             this.cancelledOrders = cancelledOrders;
+            this.totalAmount = totalAmount;
         }
         
         // Getters
         public long getTotalOrders() { return totalOrders; }
         public long getPendingOrders() { return pendingOrders; }
+        public long getConfirmedOrders() { return confirmedOrders; }
         public long getProcessingOrders() { return processingOrders; }
+        public long getShippedOrders() { return shippedOrders; }
         public long getDeliveredOrders() { return deliveredOrders; }
         public long getCancelledOrders() { return cancelledOrders; }
+        public BigDecimal getTotalAmount() { return totalAmount; }
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.orderticket.service;
+
+import com.orderticket.entity.Order;
+import com.orderticket.event.OrderChangedEvent;
+import com.orderticket.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+// In-memory order counters for the dashboard. Built from one grouped query,
+// kept current by order change events and rebuilt on a schedule to pick up
+// writes that bypass OrderService. Readers only dereference an immutable
+// snapshot, so getStatistics never touches the database once warmed up.
+@Component
+public class OrderStatisticsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatisticsCache.class);
+    private static final int STATUS_COUNT = Order.OrderStatus.values().length;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private volatile Totals totals;
+
+    public OrderService.OrderStatistics getStatistics() {
+        return getTotals().toStatistics();
+    }
+
+    public Totals getTotals() {
+        Totals current = totals;
+        return current != null ? current : rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${order.statistics.rebuild-interval-ms:300000}",
+               initialDelayString = "${order.statistics.rebuild-interval-ms:300000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    private Totals rebuild() {
+        long[] counts = new long[STATUS_COUNT];
+        BigDecimal[] amounts = new BigDecimal[STATUS_COUNT];
+        Arrays.fill(amounts, BigDecimal.ZERO);
+
+        for (OrderRepository.StatusTotals row : orderRepository.aggregateByStatus()) {
+            int index = row.getStatus().ordinal();
+            counts[index] = row.getOrderCount();
+            amounts[index] = row.getTotalAmount() != null ? row.getTotalAmount() : BigDecimal.ZERO;
+        }
+
+        Totals rebuilt = new Totals(counts, amounts);
+        synchronized (this) {
+            totals = rebuilt;
+        }
+        log.debug("Order statistics rebuilt: {} orders", rebuilt.totalOrders());
+        return rebuilt;
+    }
+
+    // Applied after commit so rolled-back writes never reach the counters
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onOrderChanged(OrderChangedEvent event) {
+        Totals current = totals;
+        if (current == null) {
+            // Not built yet; the first read will load everything from the database
+            return;
+        }
+        long[] counts = current.counts.clone();
+        BigDecimal[] amounts = current.amounts.clone();
+        if (event.before() != null) {
+            apply(counts, amounts, event.before(), -1);
+        }
+        if (event.after() != null) {
+            apply(counts, amounts, event.after(), 1);
+        }
+        totals = new Totals(counts, amounts);
+    }
+
+    private void apply(long[] counts, BigDecimal[] amounts, OrderChangedEvent.Snapshot order, int sign) {
+        int index = order.status().ordinal();
+        counts[index] += sign;
+        if (order.totalAmount() != null) {
+            BigDecimal amount = order.totalAmount();
+            amounts[index] = sign > 0 ? amounts[index].add(amount) : amounts[index].subtract(amount);
+        }
+    }
+
+    // Immutable per-status counts and amount sums
+    public static final class Totals {
+        private final long[] counts;
+        private final BigDecimal[] amounts;
+
+        private Totals(long[] counts, BigDecimal[] amounts) {
+            this.counts = counts;
+            this.amounts = amounts;
+        }
+
+        public long count(Order.OrderStatus status) {
+            return counts[status.ordinal()];
+        }
+
+        public BigDecimal amount(Order.OrderStatus status) {
+            return amounts[status.ordinal()];
+        }
+
+        public long totalOrders() {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        public BigDecimal totalAmount() {
+            BigDecimal total = BigDecimal.ZERO;
+            for (BigDecimal amount : amounts) {
+                total = total.add(amount);
+            }
+            return total;
+        }
+
+        private OrderService.OrderStatistics toStatistics() {
+            return new OrderService.OrderStatistics(
+                totalOrders(),
+                count(Order.OrderStatus.PENDING),
+                count(Order.OrderStatus.CONFIRMED),
+                count(Order.OrderStatus.PROCESSING),
+                count(Order.OrderStatus.SHIPPED),
+                count(Order.OrderStatus.DELIVERED),
+                count(Order.OrderStatus.CANCELLED),
+                totalAmount());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.orderticket.service;
+
+import com.orderticket.entity.Order;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Incremental order summary: fed one order at a time while rows are written,
+// so the summary needs no extra pass over the data. Amounts stay BigDecimal.
+// Not thread-safe; use one instance per export.
+public class OrderSummaryAggregator {
+
+    private final long[] statusCounts = new long[Order.OrderStatus.values().length];
+    private final BigDecimal[] statusAmounts = new BigDecimal[Order.OrderStatus.values().length];
+    private long totalOrders;
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    public OrderSummaryAggregator() {
+        for (int i = 0; i < statusAmounts.length; i++) {
+            statusAmounts[i] = BigDecimal.ZERO;
+        }
+    }
+
+    public void accept(Order order) {
+        BigDecimal amount = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+        int index = order.getStatus().ordinal();
+
+        totalOrders++;
+        statusCounts[index]++;
+        statusAmounts[index] = statusAmounts[index].add(amount);
+        totalAmount = totalAmount.add(amount);
+
+        if (minAmount == null || amount.compareTo(minAmount) < 0) {
+            minAmount = amount;
+        }
+        if (maxAmount == null || amount.compareTo(maxAmount) > 0) {
+            maxAmount = amount;
+        }
+    }
+
+    public long getTotalOrders() { return totalOrders; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+
+    // Zero when no orders were seen
+    public BigDecimal getMinAmount() { return minAmount != null ? minAmount : BigDecimal.ZERO; }
+    public BigDecimal getMaxAmount() { return maxAmount != null ? maxAmount : BigDecimal.ZERO; }
+
+    public BigDecimal getAverageAmount() {
+        if (totalOrders == 0) {
+            return BigDecimal.ZERO;
+        }
+        return totalAmount.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP);
+    }
+
+    public long getCount(Order.OrderStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    public BigDecimal getAmount(Order.OrderStatus status) {
+        return statusAmounts[status.ordinal()];
+    }
+
+    public Map<Order.OrderStatus, Long> getStatusCounts() {
+        Map<Order.OrderStatus, Long> counts = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            counts.put(status, statusCounts[status.ordinal()]);
+        }
+        return counts;
+    }
+}
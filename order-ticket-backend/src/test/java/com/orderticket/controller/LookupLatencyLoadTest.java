@@ -0,0 +1,163 @@
+package com.orderticket.controller;
+
+import com.orderticket.entity.Order;
+import com.orderticket.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Measures lookup latency while exports keep the server busy. Tomcat is capped
+// at a small thread pool so exports can starve platform threads. Run it once
+// per mode and compare the logged percentiles. Exports turned away by the
+// bulkhead retry after the Retry-After delay, so the admitted ones keep running.
+//   mvn test -Dtest=LookupLatencyLoadTest -Dloadtest=true
+//   mvn test -Pjava21 -Dtest=LookupLatencyLoadTest -Dloadtest=true -Dspring.threads.virtual.enabled=true
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = {"server.tomcat.threads.max=16", "spring.jpa.show-sql=false",
+                              "order.export.bulkhead.retry-after=1s"})
+public class LookupLatencyLoadTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(LookupLatencyLoadTest.class);
+    
+    private static final int ORDERS = 5000;
+    private static final int EXPORT_CLIENTS = 24;
+    private static final int LOOKUP_CLIENTS = 8;
+    private static final int LOOKUPS_PER_CLIENT = 200;
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    
+    @BeforeEach
+    public void seedOrders() {
+        if (orderRepository.count() >= ORDERS) {
+            return;
+        }
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setOrderNumber(String.format("LT-%06d", i));
+            order.setCustomerName("Load Test " + (i % 100));
+            order.setTotalAmount(BigDecimal.valueOf(100 + i % 900));
+            order.setStatus(Order.OrderStatus.values()[i % Order.OrderStatus.values().length]);
+            order.setOrderDate(LocalDateTime.now().minusMinutes(i));
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+    }
+    
+    @Test
+    public void lookupLatencyUnderExportLoad() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger exportsCompleted = new AtomicInteger();
+        AtomicInteger exportsRejected = new AtomicInteger();
+        ExecutorService exporters = Executors.newFixedThreadPool(EXPORT_CLIENTS);
+        for (int i = 0; i < EXPORT_CLIENTS; i++) {
+            exporters.submit(() -> {
+                while (running.get()) {
+                    HttpResponse<Void> response = send("/api/export/excel");
+                    if (response.statusCode() == 429) {
+                        exportsRejected.incrementAndGet();
+                        long retryAfter = response.headers().firstValueAsLong(HttpHeaders.RETRY_AFTER).orElse(1);
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(retryAfter));
+                    } else {
+                        assertEquals(200, response.statusCode());
+                        exportsCompleted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        List<Long> latencies = new ArrayList<>();
+        int exportsDuringLookups;
+        ExecutorService lookups = Executors.newFixedThreadPool(LOOKUP_CLIENTS);
+        try {
+            // Let the exports occupy the server before measuring
+            Thread.sleep(2000);
+            
+            Long lookupId = orderRepository.findAll(PageRequest.of(0, 1)).getContent().get(0).getId();
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int i = 0; i < LOOKUP_CLIENTS; i++) {
+                results.add(lookups.submit(() -> {
+                    List<Long> clientLatencies = new ArrayList<>();
+                    for (int n = 0; n < LOOKUPS_PER_CLIENT; n++) {
+                        String path = n % 2 == 0 ? "/api/orders/" + lookupId : "/api/orders/search?status=PENDING&size=20";
+                        long start = System.nanoTime();
+                        assertEquals(200, send(path).statusCode());
+                        clientLatencies.add(System.nanoTime() - start);
+                    }
+                    return clientLatencies;
+                }));
+            }
+            for (Future<List<Long>> result : results) {
+                latencies.addAll(result.get());
+            }
+            exportsDuringLookups = exportsCompleted.get();
+        } finally {
+            // Stop the export clients even when a lookup failed, or they run forever
+            running.set(false);
+            lookups.shutdownNow();
+            exporters.shutdownNow();
+            exporters.awaitTermination(2, TimeUnit.MINUTES);
+        }
+        
+        // Without exports finishing alongside the lookups there was no load to measure
+        assertTrue(exportsDuringLookups > 0, "no export completed while lookups ran");
+        assertEquals(LOOKUP_CLIENTS * LOOKUPS_PER_CLIENT, latencies.size());
+        
+        Collections.sort(latencies);
+        log.info("Lookup latency (virtual threads={}): p50={}ms p95={}ms p99={}ms max={}ms, "
+                 + "exports completed={} rejected={}",
+            System.getProperty("spring.threads.virtual.enabled", "false"),
+            percentile(latencies, 50), percentile(latencies, 95),
+            percentile(latencies, 99), percentile(latencies, 100),
+            exportsCompleted.get(), exportsRejected.get());
+    }
+    
+    private HttpResponse<Void> send(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofMinutes(2))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+    
+    private static long percentile(List<Long> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(0, index)));
+    }
+}
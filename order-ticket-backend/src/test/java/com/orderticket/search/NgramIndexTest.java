@@ -0,0 +1,45 @@
+package com.orderticket.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class NgramIndexTest {
+
+    @Test
+    public void findsChineseNamesBySubstring() {
+        NgramIndex index = new NgramIndex(1, 2);
+        index.add(1, "张三");
+        index.add(2, "李四");
+        index.add(3, "张三丰");
+
+        assertArrayEquals(new long[]{1, 3}, index.candidates("张三"));
+        assertArrayEquals(new long[]{1, 3}, index.candidates("张"));
+        assertArrayEquals(new long[]{3}, index.candidates("三丰"));
+        assertArrayEquals(new long[0], index.candidates("王五"));
+    }
+
+    @Test
+    public void matchesOrderNumbersCaseInsensitively() {
+        NgramIndex index = new NgramIndex(3, 3);
+        index.add(10, "ORD-2024-001");
+        index.add(11, "ORD-2024-002");
+
+        assertArrayEquals(new long[]{10, 11}, index.candidates("ord-2024"));
+        assertArrayEquals(new long[]{11}, index.candidates("-002"));
+        assertNull(index.candidates("02"));
+    }
+
+    @Test
+    public void removeDropsStaleText() {
+        NgramIndex index = new NgramIndex(1, 2);
+        index.add(1, "张三");
+        index.add(2, "张三丰");
+        index.remove(1, "张三");
+        index.add(1, "李四");
+
+        assertArrayEquals(new long[]{2}, index.candidates("张三"));
+        assertArrayEquals(new long[]{1}, index.candidates("李四"));
+    }
+}
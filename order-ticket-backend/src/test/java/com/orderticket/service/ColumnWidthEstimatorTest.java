@@ -0,0 +1,44 @@
+package com.orderticket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ColumnWidthEstimatorTest {
+
+    @Test
+    public void countsCjkCharactersAsDoubleWidth() {
+        assertEquals(5, ColumnWidthEstimator.displayWidth("hello", 100));
+        assertEquals(7, ColumnWidthEstimator.displayWidth("张三 Li", 100));
+        assertEquals(4, ColumnWidthEstimator.displayWidth("ＡＢ", 100));
+        assertEquals(10, ColumnWidthEstimator.displayWidth("订单号订单号订单号", 10));
+    }
+
+    @Test
+    public void widestValueSetsColumnWidth() {
+        ColumnWidthEstimator widths = new ColumnWidthEstimator(2, 0, 100_000);
+
+        widths.track(0, "abc");
+        widths.track(0, "客户姓名");
+        widths.track(0, "x");
+        widths.track(1, new BigDecimal("-1234.50"));
+        widths.track(1, new BigDecimal("0.05"));
+
+        assertEquals((8 + 2) * 256, widths.getWidth(0));
+        assertEquals((8 + 2) * 256, widths.getWidth(1));
+    }
+
+    @Test
+    public void clampsToMinimumAndMaximum() {
+        ColumnWidthEstimator widths = new ColumnWidthEstimator(3, 3000, 15000);
+
+        widths.track(0, "a");
+        widths.track(1, "很长的产品详情".repeat(20));
+
+        assertEquals(3000, widths.getWidth(0));
+        assertEquals(15000, widths.getWidth(1));
+        assertEquals(3000, widths.getWidth(2));
+    }
+}
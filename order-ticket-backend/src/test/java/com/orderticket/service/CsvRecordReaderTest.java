@@ -0,0 +1,44 @@
+package com.orderticket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CsvRecordReaderTest {
+
+    @Test
+    public void readsPlainRecords() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b,c\r\n1,2,3\n"));
+
+        assertArrayEquals(new String[] {"a", "b", "c"}, reader.next());
+        assertArrayEquals(new String[] {"1", "2", "3"}, reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void readsQuotedFieldsWithCommasQuotesAndNewlines() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+            new StringReader("\"张三, Jr.\",\"say \"\"hi\"\"\",\"two\nlines\"\nnext,row,here"));
+
+        assertArrayEquals(new String[] {"张三, Jr.", "say \"hi\"", "two\nlines"}, reader.next());
+        assertEquals(1, reader.getRecordLine());
+        assertArrayEquals(new String[] {"next", "row", "here"}, reader.next());
+        assertEquals(3, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void keepsEmptyFieldsAndSkipsBlankLines() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,,\n\n,\"\",b\n"));
+
+        assertArrayEquals(new String[] {"a", "", ""}, reader.next());
+        assertArrayEquals(new String[] {"", "", "b"}, reader.next());
+        assertEquals(3, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+}
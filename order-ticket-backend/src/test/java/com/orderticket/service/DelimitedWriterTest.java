@@ -0,0 +1,68 @@
+package com.orderticket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DelimitedWriterTest {
+
+    @Test
+    public void quotesCsvFieldsOnlyWhenNeeded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DelimitedWriter writer = new DelimitedWriter(out, DelimitedWriter.Dialect.CSV);
+
+        writer.field("plain").field("张三, Jr.").field("say \"hi\"").field("two\nlines").field((String) null)
+              .endRecord().flush();
+
+        assertEquals("plain,\"张三, Jr.\",\"say \"\"hi\"\"\",\"two\nlines\",\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void escapesTsvControlCharacters() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DelimitedWriter writer = new DelimitedWriter(out, DelimitedWriter.Dialect.TSV);
+
+        writer.field("a\tb").field("c\r\nd").field("back\\slash").field(7L).endRecord().flush();
+
+        assertEquals("a\\tb\tc\\r\\nd\tback\\\\slash\t7\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void formatsNumbersAndDates() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DelimitedWriter writer = new DelimitedWriter(out, DelimitedWriter.Dialect.CSV);
+
+        writer.field(-42L)
+              .field(new BigDecimal("1234.50"))
+              .field(new BigDecimal("-0.05"))
+              .field(new BigDecimal("7"))
+              .field(new BigDecimal("1E+3"))
+              .field(LocalDateTime.of(2024, 1, 31, 9, 5))
+              .field(LocalDateTime.of(2024, 12, 1, 23, 59, 3, 120_000_000))
+              .endRecord().flush();
+
+        assertEquals("-42,1234.50,-0.05,7,1000,2024-01-31T09:05:00,2024-12-01T23:59:03.120\r\n",
+                     out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void encodesUtf8AcrossBufferBoundaries() throws IOException {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            value.append("订单😀é\"");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DelimitedWriter writer = new DelimitedWriter(out, DelimitedWriter.Dialect.CSV, 64);
+
+        writer.field(value.toString()).endRecord().flush();
+
+        String expected = "\"" + value.toString().replace("\"", "\"\"") + "\"\r\n";
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+package com.orderticket.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExportBulkheadTest {
+
+    private final ExportBulkhead bulkhead = new ExportBulkhead(1, 0, Duration.ZERO, Duration.ofSeconds(10));
+
+    @Test
+    public void bodyThatNeverRunsHoldsNoPermit() throws IOException {
+        bulkhead.guard(outputStream -> { });
+
+        assertEquals(0, bulkhead.getActive());
+        bulkhead.guard(outputStream -> { }).writeTo(OutputStream.nullOutputStream());
+        assertEquals(1, bulkhead.getAdmitted());
+    }
+
+    @Test
+    public void failingBodyReleasesItsPermit() throws IOException {
+        StreamingResponseBody body = bulkhead.guard(outputStream -> {
+            throw new IOException("client gone");
+        });
+
+        assertThrows(IOException.class, () -> body.writeTo(OutputStream.nullOutputStream()));
+        assertEquals(0, bulkhead.getActive());
+        bulkhead.guard(outputStream -> { }).writeTo(OutputStream.nullOutputStream());
+        assertEquals(2, bulkhead.getAdmitted());
+    }
+
+    @Test
+    public void exportsBeyondTheLimitAreRejected() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        StreamingResponseBody running = bulkhead.guard(outputStream -> {
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        StreamingResponseBody admittedEarly = bulkhead.guard(outputStream -> { });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> {
+                running.writeTo(OutputStream.nullOutputStream());
+                return null;
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Full: rejected before dispatch, and a body that got past the early check is rejected when it starts
+            assertThrows(ExportBulkhead.BulkheadFullException.class, () -> bulkhead.guard(outputStream -> { }));
+            assertThrows(ExportBulkhead.BulkheadFullException.class,
+                () -> admittedEarly.writeTo(OutputStream.nullOutputStream()));
+            assertEquals(1, bulkhead.getActive());
+
+            finish.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, bulkhead.getActive());
+        assertEquals(2, bulkhead.getRejected());
+    }
+}
@@ -0,0 +1,62 @@
+package com.orderticket.service;
+
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.kernel.pdf.canvas.parser.filter.TextRegionEventFilter;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.FilteredTextEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import com.itextpdf.layout.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InvoiceTemplateTest {
+
+    private static final String LONG_EMAIL =
+        "a.very.long.customer.mailbox.name.that.keeps.going.and.going@subdomain.example-company.com";
+    private static final String PHONE = "13800138000";
+
+    @Test
+    public void longValueStaysInItsRow() throws IOException {
+        InvoiceTemplate template = new InvoiceTemplate();
+        ReflectionTestUtils.setField(template, "fontPath", "");
+        template.init();
+
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(InvoiceTemplate.newWriter(pdf));
+        Document document = template.newInvoice(pdfDoc);
+        template.fill(document, InvoiceTemplate.Field.CUSTOMER_EMAIL, LONG_EMAIL);
+        template.fill(document, InvoiceTemplate.Field.CUSTOMER_PHONE, PHONE);
+        template.fill(document, InvoiceTemplate.Field.CUSTOMER_NAME, "张三");
+        document.close();
+
+        try (PdfDocument rendered = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf.toByteArray())))) {
+            assertEquals(1, rendered.getNumberOfPages());
+            String emailRow = rowText(rendered, InvoiceTemplate.Field.CUSTOMER_EMAIL);
+            String phoneRow = rowText(rendered, InvoiceTemplate.Field.CUSTOMER_PHONE);
+            String nameRow = rowText(rendered, InvoiceTemplate.Field.CUSTOMER_NAME);
+
+            assertTrue(emailRow.contains("a.very.long.customer"), emailRow);
+            assertFalse(emailRow.contains("\n"), "value wrapped: " + emailRow);
+            assertEquals("客户电话 / Phone: " + PHONE, phoneRow.trim());
+            assertEquals("客户姓名 / Customer Name: 张三", nameRow.trim());
+        }
+    }
+
+    // Text whose baseline lies within the row, label and value
+    private static String rowText(PdfDocument pdfDoc, InvoiceTemplate.Field field) {
+        Rectangle row = new Rectangle(0, InvoiceTemplate.rowBottom(field), pdfDoc.getDefaultPageSize().getWidth(),
+                                      InvoiceTemplate.ROW_HEIGHT);
+        return PdfTextExtractor.getTextFromPage(pdfDoc.getFirstPage(),
+            new FilteredTextEventListener(new LocationTextExtractionStrategy(), new TextRegionEventFilter(row)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.orderticket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OrderCursorTest {
+
+    @Test
+    public void encodedCursorRoundTrips() {
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 5, 123456000), 42L);
+
+        assertEquals(cursor, OrderCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    public void missingCursorMeansFirstSlice() {
+        assertNull(OrderCursor.decode(null));
+        assertNull(OrderCursor.decode(""));
+    }
+
+    @Test
+    public void malformedCursorIsRejected() {
+        assertThrows(OrderCursor.InvalidCursorException.class, () -> OrderCursor.decode("not-a-cursor"));
+    }
+}
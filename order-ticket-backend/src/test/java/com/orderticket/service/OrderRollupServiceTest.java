@@ -0,0 +1,76 @@
+package com.orderticket.service;
+
+import com.orderticket.dto.DailyOrderStats;
+import com.orderticket.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The increments applied on commit must leave the rollup exactly where a
+// reconcile from the orders table would put it
+@SpringBootTest
+public class OrderRollupServiceTest {
+
+    // Far from the seed data, so only this test's orders land on these days
+    private static final LocalDate DAY = LocalDate.of(2001, 2, 3);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRollupService rollupService;
+
+    @Test
+    public void incrementsMatchReconcileAfterCreateUpdateDelete() {
+        List<Long> created = new ArrayList<>();
+        try {
+            Order moved = orderService.createOrder(order("ROLLUP-1", "100.00", Order.OrderStatus.PENDING));
+            Order shipped = orderService.createOrder(order("ROLLUP-2", "50.00", Order.OrderStatus.PENDING));
+            Order deleted = orderService.createOrder(order("ROLLUP-3", "20.00", Order.OrderStatus.CONFIRMED));
+            created.add(moved.getId());
+            created.add(shipped.getId());
+            created.add(deleted.getId());
+
+            moved.setOrderDate(DAY.plusDays(1).atTime(9, 0));
+            orderService.updateOrder(moved);
+            shipped.setStatus(Order.OrderStatus.SHIPPED);
+            shipped.setTotalAmount(new BigDecimal("120.00"));
+            orderService.updateOrder(shipped);
+            orderService.deleteOrder(deleted.getId());
+            created.remove(deleted.getId());
+
+            List<DailyOrderStats> incremental = rollupService.getDailyStats(DAY, DAY.plusDays(1), null);
+            assertEquals(2, incremental.size());
+            assertStats(incremental.get(0), DAY, Order.OrderStatus.SHIPPED, "120.00");
+            assertStats(incremental.get(1), DAY.plusDays(1), Order.OrderStatus.PENDING, "100.00");
+            assertEquals(List.of(incremental.get(0)),
+                         rollupService.getDailyStats(DAY, DAY.plusDays(1), Order.OrderStatus.SHIPPED));
+
+            assertEquals(0, rollupService.reconcile(DAY, DAY.plusDays(2)));
+            assertEquals(incremental, rollupService.getDailyStats(DAY, DAY.plusDays(1), null));
+        } finally {
+            created.forEach(orderService::deleteOrder);
+        }
+        assertEquals(List.of(), rollupService.getDailyStats(DAY, DAY.plusDays(1), null));
+    }
+
+    private static Order order(String orderNumber, String amount, Order.OrderStatus status) {
+        Order order = new Order(orderNumber, "Rollup Test", null, null, new BigDecimal(amount), status, null, null);
+        order.setOrderDate(DAY.atTime(10, 0));
+        return order;
+    }
+
+    private static void assertStats(DailyOrderStats stats, LocalDate date, Order.OrderStatus status, String amount) {
+        assertEquals(date, stats.date());
+        assertEquals(status, stats.status());
+        assertEquals(1, stats.orderCount());
+        assertEquals(0, new BigDecimal(amount).compareTo(stats.totalAmount()), stats.totalAmount().toString());
+    }
+}
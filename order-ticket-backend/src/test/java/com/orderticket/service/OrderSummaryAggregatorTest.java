@@ -0,0 +1,42 @@
+package com.orderticket.service;
+
+import com.orderticket.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OrderSummaryAggregatorTest {
+
+    @Test
+    public void aggregatesCountsAndExactAmountsInOnePass() {
+        OrderSummaryAggregator summary = new OrderSummaryAggregator();
+        summary.accept(order("0.10", Order.OrderStatus.CONFIRMED));
+        summary.accept(order("0.20", Order.OrderStatus.SHIPPED));
+        summary.accept(order("299.99", Order.OrderStatus.SHIPPED));
+
+        assertEquals(3, summary.getTotalOrders());
+        assertEquals(1, summary.getCount(Order.OrderStatus.CONFIRMED));
+        assertEquals(2, summary.getCount(Order.OrderStatus.SHIPPED));
+        assertEquals(0, summary.getCount(Order.OrderStatus.PENDING));
+        assertEquals(new BigDecimal("300.29"), summary.getTotalAmount());
+        assertEquals(new BigDecimal("300.19"), summary.getAmount(Order.OrderStatus.SHIPPED));
+        assertEquals(new BigDecimal("0.10"), summary.getMinAmount());
+        assertEquals(new BigDecimal("299.99"), summary.getMaxAmount());
+        assertEquals(new BigDecimal("100.10"), summary.getAverageAmount());
+    }
+
+    @Test
+    public void emptySummaryReportsZero() {
+        OrderSummaryAggregator summary = new OrderSummaryAggregator();
+
+        assertEquals(0, summary.getTotalOrders());
+        assertEquals(BigDecimal.ZERO, summary.getAverageAmount());
+        assertEquals(BigDecimal.ZERO, summary.getMinAmount());
+    }
+
+    private Order order(String amount, Order.OrderStatus status) {
+        return new Order("ORD-TEST", "测试", null, null, new BigDecimal(amount), status, null, null);
+    }
+}
@@ -49,9 +49,51 @@ export interface PageResponse<T> {
 export interface OrderStatistics {
   totalOrders: number
   pendingOrders: number
+  confirmedOrders: number
   processingOrders: number
+  shippedOrders: number
   deliveredOrders: number
   cancelledOrders: number
+  totalAmount: number
+}
+
+export interface DailyOrderStats {
+  date: string
+  status: Order['status']
+  orderCount: number
+  totalAmount: number
+}
+
+export interface ExportEstimate {
+  rows: number
+  exact: boolean
+  capped: boolean
+  estimatedBytes: Record<string, number>
+}
+
+export type ExportFormat = 'EXCEL' | 'JSON' | 'CSV' | 'TSV' | 'PDF_BATCH' | 'INVOICE_ZIP'
+
+export interface ExportJob {
+  id: string
+  format: ExportFormat
+  status: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED' | 'CANCELLED'
+  rowsProcessed: number
+  totalRows: number
+  progress: number
+  createdAt: string
+  startedAt?: string
+  finishedAt?: string
+  error?: string
+  fileSize: number
+  fileName: string
+}
+
+export interface ImportResult {
+  imported: number
+  rejected: number
+  errors: string[]
+  elapsedMillis: number
+  rowsPerSecond: number
 }
 
 export const orderApi = {
@@ -91,10 +133,21 @@ export const orderApi = {
   getExportPreview: (params: OrderSearchParams): Promise<Order[]> =>
     apiClient.get('/export/preview', { params }).then(res => res.data),
 
+  // Get estimated row count and file size per format for an export
+  getExportEstimate: (params: OrderSearchParams): Promise<ExportEstimate> =>
+    apiClient.get('/export/preview/estimate', { params }).then(res => res.data),
+
   // Create new order
   createOrder: (order: Omit<Order, 'id'>): Promise<Order> =>
     apiClient.post('/orders', order).then(res => res.data),
 
+  // Bulk import orders from a CSV (with header row) or JSON lines file
+  importOrders: (file: File): Promise<ImportResult> =>
+    apiClient.post('/orders/import', file, {
+      headers: { 'Content-Type': file.name.toLowerCase().endsWith('.csv') ? 'text/csv' : 'application/x-ndjson' },
+      timeout: 0,
+    }).then(res => res.data),
+
   // Update existing order
   updateOrder: (id: number, order: Order): Promise<Order> =>
     apiClient.put(`/orders/${id}`, order).then(res => res.data),
@@ -113,9 +166,41 @@ export const exportApi = {
   exportBatchInvoicesPdf: (params: OrderSearchParams): Promise<Blob> =>
     apiClient.get('/export/invoice/pdf/batch', { params, responseType: 'blob' }).then(res => res.data),
 
+  // Export one PDF invoice per order as a ZIP archive
+  exportInvoicesZip: (params: OrderSearchParams): Promise<Blob> =>
+    apiClient.get('/export/invoice/pdf/zip', { params, responseType: 'blob' }).then(res => res.data),
+
   // Export orders to Excel
   exportToExcel: (params: OrderSearchParams): Promise<Blob> =>
     apiClient.get('/export/excel', { params, responseType: 'blob' }).then(res => res.data),
+
+  // Export orders as CSV (or TSV), optionally as a gzip-compressed file
+  exportToCsv: (params: OrderSearchParams, dialect: 'CSV' | 'TSV' = 'CSV', gzip = false): Promise<Blob> =>
+    apiClient.get('/export/csv', { params: { ...params, dialect, gzip }, responseType: 'blob' }).then(res => res.data),
+}
+
+export const exportJobApi = {
+  // Submit an asynchronous export job
+  submitJob: (format: ExportFormat, params: OrderSearchParams): Promise<ExportJob> =>
+    apiClient.post('/export/jobs', { format, ...params }).then(res => res.data),
+
+  // Poll job status and progress
+  getJob: (id: string): Promise<ExportJob> =>
+    apiClient.get(`/export/jobs/${id}`).then(res => res.data),
+
+  // Download the finished export file
+  downloadJob: (id: string): Promise<Blob> =>
+    apiClient.get(`/export/jobs/${id}/download`, { responseType: 'blob', timeout: 0 }).then(res => res.data),
+
+  // Cancel a running job or discard a finished one
+  cancelJob: (id: string): Promise<void> =>
+    apiClient.delete(`/export/jobs/${id}`).then(res => res.data),
+}
+
+export const reportApi = {
+  // Order count and amount per day and status (dates inclusive, yyyy-MM-dd)
+  getDailyStats: (startDate: string, endDate: string, status?: string): Promise<DailyOrderStats[]> =>
+    apiClient.get('/reports/daily', { params: { startDate, endDate, status } }).then(res => res.data),
 }
 
 // Helper function to download blob as file